@@ -0,0 +1,161 @@
+package com.example.task_manager.bloom;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Contrôle d'existence d'une clé unique (titre, email) qui ne consulte la base que si le filtre de Bloom
+ * répond « peut-être présente ». Les clés nouvelles, de loin les plus fréquentes, ne coûtent donc
+ * aucune requête.
+ * <p>
+ * Le filtre est construit au démarrage en parcourant les clés de la base, complété à chaque insertion,
+ * puis reconstruit périodiquement pour oublier les clés supprimées. Tant qu'il n'est pas construit,
+ * toutes les clés sont considérées comme « peut-être présentes ». Une clé insérée pendant une
+ * reconstruction peut exceptionnellement être oubliée : les contraintes d'unicité de la base
+ * restent la garantie finale.
+ */
+@Slf4j
+public abstract class ExistenceFilter {
+
+    private final String name;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    private volatile ConcurrentBloomFilter current;
+    private volatile ConcurrentBloomFilter rebuilding;
+
+    private final Counter absent;
+    private final Counter present;
+    private final Counter falsePositives;
+
+    protected ExistenceFilter(String name, long expectedInsertions, double falsePositiveRate, MeterRegistry registry) {
+        this.name = name;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+
+        Gauge.builder("existence.filter.expected.fpp", this, filter -> filter.expectedFalsePositiveRate())
+                .description("Taux de faux positifs attendu d'après le remplissage du filtre")
+                .tag("filter", name)
+                .register(registry);
+        Gauge.builder("existence.filter.size", this, filter -> filter.sizeInBytes())
+                .description("Mémoire occupée par le filtre")
+                .baseUnit(BaseUnits.BYTES)
+                .tag("filter", name)
+                .register(registry);
+        this.absent = checks(registry, "absent");
+        this.present = checks(registry, "present");
+        this.falsePositives = checks(registry, "false_positive");
+    }
+
+    /**
+     * @param key           clé recherchée
+     * @param databaseCheck contrôle en base, appelé uniquement si le filtre ne peut pas exclure la clé
+     * @return true si la clé existe en base
+     */
+    public boolean exists(String key, Predicate<String> databaseCheck) {
+        if (!mightContain(key)) {
+            absent.increment();
+            return false;
+        }
+        boolean exists = databaseCheck.test(key);
+        (exists ? present : falsePositives).increment();
+        return exists;
+    }
+
+    /**
+     * Version par lot de {@link #exists} : une seule requête pour les clés que le filtre ne peut pas exclure.
+     *
+     * @param keys           clés recherchées
+     * @param databaseLookup renvoie, parmi les clés reçues, celles qui existent en base
+     * @return les clés existantes
+     */
+    public Set<String> existing(Collection<String> keys, Function<Collection<String>, List<String>> databaseLookup) {
+        Set<String> candidates = new HashSet<>();
+        for (String key : keys) {
+            if (mightContain(key)) {
+                candidates.add(key);
+            } else {
+                absent.increment();
+            }
+        }
+        if (candidates.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> found = new HashSet<>(databaseLookup.apply(candidates));
+        present.increment(found.size());
+        falsePositives.increment(candidates.size() - found.size());
+        return found;
+    }
+
+    public void add(String key) {
+        String normalized = normalize(key);
+        ConcurrentBloomFilter filter = current;
+        if (filter != null) {
+            filter.put(normalized);
+        }
+        ConcurrentBloomFilter next = rebuilding;
+        if (next != null) {
+            next.put(normalized);
+        }
+    }
+
+    /**
+     * Remplace le filtre par un filtre neuf alimenté par les clés de la base.
+     * Les insertions faites pendant le parcours alimentent les deux filtres.
+     *
+     * @param count nombre de clés en base, pour dimensionner le filtre
+     * @param keys  clés de la base, parcourues une seule fois
+     */
+    protected synchronized void rebuild(long count, Stream<String> keys) {
+        long started = System.nanoTime();
+        ConcurrentBloomFilter next = new ConcurrentBloomFilter(
+                Math.max(expectedInsertions, count + count / 2), falsePositiveRate);
+        rebuilding = next;
+        try {
+            keys.forEach(key -> next.put(normalize(key)));
+            current = next;
+        } finally {
+            rebuilding = null;
+        }
+        log.info("Filtre d'existence '{}' reconstruit : {} clé(s), {} Ko, en {} ms", name, count,
+                next.sizeInBytes() / 1024, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    protected String normalize(String key) {
+        return key;
+    }
+
+    private boolean mightContain(String key) {
+        ConcurrentBloomFilter filter = current;
+        return filter == null || filter.mightContain(normalize(key));
+    }
+
+    private double expectedFalsePositiveRate() {
+        ConcurrentBloomFilter filter = current;
+        return filter == null ? 1.0 : filter.expectedFalsePositiveRate();
+    }
+
+    private long sizeInBytes() {
+        ConcurrentBloomFilter filter = current;
+        return filter == null ? 0 : filter.sizeInBytes();
+    }
+
+    private Counter checks(MeterRegistry registry, String result) {
+        return Counter.builder("existence.filter.checks")
+                .description("Contrôles d'existence par réponse : absent (sans requête), present, false_positive")
+                .tag("filter", name)
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.task_manager.bloom;
+
+import com.example.task_manager.repository.TaskRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.stream.Stream;
+
+/**
+ * Filtre d'existence des titres de tâches (contrainte d'unicité uq_tasks_title, sensible à la casse).
+ */
+@Component
+public class TaskTitleFilter extends ExistenceFilter {
+
+    private final TaskRepository taskRepository;
+
+    public TaskTitleFilter(
+            TaskRepository taskRepository,
+            MeterRegistry meterRegistry,
+            @Value("${existence-filter.task-titles.expected:1000000}") long expectedTitles,
+            @Value("${existence-filter.fpp:0.01}") double falsePositiveRate
+    ) {
+        super("taskTitles", expectedTitles, falsePositiveRate, meterRegistry);
+        this.taskRepository = taskRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${existence-filter.rebuild-cron:0 30 */6 * * *}")
+    // Lecture sur la base primaire : un réplica en retard ferait manquer des titres au filtre (faux négatif)
+    @Transactional
+    public void rebuild() {
+        try (Stream<String> titles = taskRepository.streamAllTitles()) {
+            rebuild(taskRepository.count(), titles);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.task_manager.bloom;
+
+import com.example.task_manager.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Filtre d'existence des emails, en minuscules comme le contrôle {@code existsByEmailIgnoreCase}.
+ */
+@Component
+public class UserEmailFilter extends ExistenceFilter {
+
+    private final UserRepository userRepository;
+
+    public UserEmailFilter(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${existence-filter.user-emails.expected:1000000}") long expectedEmails,
+            @Value("${existence-filter.fpp:0.01}") double falsePositiveRate
+    ) {
+        super("userEmails", expectedEmails, falsePositiveRate, meterRegistry);
+        this.userRepository = userRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${existence-filter.rebuild-cron:0 30 */6 * * *}")
+    // Lecture sur la base primaire : un réplica en retard ferait manquer des emails au filtre (faux négatif)
+    @Transactional
+    public void rebuild() {
+        try (Stream<String> emails = userRepository.streamAllEmails()) {
+            rebuild(userRepository.count(), emails);
+        }
+    }
+
+    @Override
+    protected String normalize(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.task_manager.bulkhead;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Classe de trafic d'un endpoint (ou de tous les endpoints d'un contrôleur).
+ * Prioritaire sur les routes de {@link BulkheadProperties} ; à défaut, {@link TrafficClass#INTERACTIVE}.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Bulkhead {
+
+    TrafficClass value();
+}
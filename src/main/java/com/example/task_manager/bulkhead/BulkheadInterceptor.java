@@ -0,0 +1,171 @@
+package com.example.task_manager.bulkhead;
+
+import com.example.task_manager.exception.BulkheadFullException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Attribue sa classe de trafic à chaque requête et applique la limite de concurrence de son compartiment.
+ * L'attente d'une place est bornée par {@code max-wait} : un compartiment saturé répond 503 au lieu de
+ * retenir des threads Tomcat, qui restent disponibles pour les autres classes.
+ */
+@Component
+@Slf4j
+public class BulkheadInterceptor implements HandlerInterceptor {
+
+    private static final String ACQUIRED = BulkheadInterceptor.class.getName() + ".ACQUIRED";
+
+    private final BulkheadProperties properties;
+    private final Map<TrafficClass, Compartment> compartments = new EnumMap<>(TrafficClass.class);
+    private final Map<Method, Optional<TrafficClass>> annotated = new ConcurrentHashMap<>();
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public BulkheadInterceptor(BulkheadProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.properties = properties;
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        properties.compartments().forEach((trafficClass, compartment) -> {
+            if (compartment.maxConcurrent() > 0) {
+                compartments.put(trafficClass, new Compartment(trafficClass, compartment, registry));
+            }
+        });
+    }
+
+    @Override
+    public boolean preHandle(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull Object handler
+    ) throws InterruptedException {
+        if (!properties.enabled()) {
+            return true;
+        }
+
+        TrafficClass trafficClass = resolve(request, handler);
+        Compartment compartment = compartments.get(trafficClass);
+        if (compartment != null) {
+            if (!compartment.tryAcquire()) {
+                log.warn("Compartiment {} saturé : requête {} {} rejetée",
+                        trafficClass, request.getMethod(), request.getServletPath());
+                throw new BulkheadFullException(trafficClass, properties.retryAfterSeconds());
+            }
+            request.setAttribute(ACQUIRED, compartment);
+        }
+        TrafficClassHolder.set(trafficClass);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull Object handler,
+            Exception ex
+    ) {
+        TrafficClassHolder.clear();
+        if (request.getAttribute(ACQUIRED) instanceof Compartment compartment) {
+            request.removeAttribute(ACQUIRED);
+            compartment.release();
+        }
+    }
+
+    // Annotation de l'endpoint, puis routes configurées, puis trafic interactif
+    TrafficClass resolve(HttpServletRequest request, Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            Optional<TrafficClass> declared = annotated.computeIfAbsent(handlerMethod.getMethod(),
+                    method -> Optional.ofNullable(annotation(handlerMethod)).map(Bulkhead::value));
+            if (declared.isPresent()) {
+                return declared.get();
+            }
+        }
+        String path = request.getServletPath();
+        for (BulkheadProperties.Route route : properties.routes()) {
+            if (matches(route, request.getMethod(), path)) {
+                return route.trafficClass();
+            }
+        }
+        return TrafficClass.INTERACTIVE;
+    }
+
+    private boolean matches(BulkheadProperties.Route route, String method, String path) {
+        return (route.method() == null || route.method().isBlank() || route.method().equalsIgnoreCase(method))
+                && pathMatcher.match(route.pattern(), path);
+    }
+
+    private static Bulkhead annotation(HandlerMethod handlerMethod) {
+        Bulkhead bulkhead = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getMethod(), Bulkhead.class);
+        return bulkhead != null
+                ? bulkhead
+                : AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), Bulkhead.class);
+    }
+
+    private static final class Compartment {
+
+        private final Semaphore permits;
+        private final Duration maxWait;
+        private final Counter rejected;
+        private final Timer wait;
+
+        Compartment(TrafficClass trafficClass, BulkheadProperties.Compartment settings, MeterRegistry registry) {
+            this.permits = new Semaphore(settings.maxConcurrent());
+            this.maxWait = settings.maxWait();
+            if (registry == null) {
+                this.rejected = null;
+                this.wait = null;
+                return;
+            }
+            String tag = trafficClass.name().toLowerCase(Locale.ROOT);
+            Gauge.builder("bulkhead.active", permits, p -> settings.maxConcurrent() - p.availablePermits())
+                    .description("Requêtes en cours dans le compartiment")
+                    .tag("class", tag)
+                    .register(registry);
+            this.rejected = Counter.builder("bulkhead.rejected")
+                    .description("Requêtes rejetées, compartiment saturé")
+                    .tag("class", tag)
+                    .register(registry);
+            this.wait = Timer.builder("bulkhead.wait")
+                    .description("Attente d'une place dans le compartiment")
+                    .tag("class", tag)
+                    .register(registry);
+        }
+
+        boolean tryAcquire() throws InterruptedException {
+            long start = System.nanoTime();
+            boolean acquired = maxWait.isZero()
+                    ? permits.tryAcquire()
+                    : permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+            if (wait != null) {
+                wait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                if (!acquired) {
+                    rejected.increment();
+                }
+            }
+            return acquired;
+        }
+
+        void release() {
+            permits.release();
+        }
+    }
+}
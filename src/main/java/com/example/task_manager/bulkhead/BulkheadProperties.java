@@ -0,0 +1,57 @@
+package com.example.task_manager.bulkhead;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cloisonnement du trafic par classe. Une classe sans compartiment n'est pas limitée
+ * et partage le pool de connexions par défaut.
+ *
+ * @param enabled           active les limites de concurrence et les pools par classe (désactivé par défaut)
+ * @param retryAfterSeconds délai indiqué au client (Retry-After) lorsqu'un compartiment est plein
+ * @param compartments      compartiment de chaque classe limitée
+ * @param routes            classes attribuées par route, pour les endpoints sans {@link Bulkhead}
+ */
+@ConfigurationProperties(prefix = "bulkhead")
+public record BulkheadProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("1") long retryAfterSeconds,
+        @DefaultValue Map<TrafficClass, Compartment> compartments,
+        @DefaultValue List<Route> routes
+) {
+
+    /**
+     * @param maxConcurrent requêtes simultanées autorisées, illimitées si 0
+     * @param maxWait       attente maximale d'une place avant le rejet (503)
+     * @param poolSize      taille du pool de connexions dédié, pool par défaut si vide
+     */
+    public record Compartment(int maxConcurrent, @DefaultValue("0ms") Duration maxWait, Integer poolSize) {
+    }
+
+    /**
+     * @param pattern      motif de chemin (syntaxe Ant, ex : /api/export/**)
+     * @param method       méthode HTTP concernée, toutes si vide
+     * @param trafficClass classe attribuée
+     */
+    public record Route(String pattern, String method, TrafficClass trafficClass) {
+    }
+
+    // Compartiments disposant de leur propre pool de connexions
+    public Map<TrafficClass, Integer> poolSizes() {
+        if (!enabled) {
+            return Map.of();
+        }
+        Map<TrafficClass, Integer> sizes = new EnumMap<>(TrafficClass.class);
+        compartments.forEach((trafficClass, compartment) -> {
+            if (compartment.poolSize() != null) {
+                sizes.put(trafficClass, compartment.poolSize());
+            }
+        });
+        return sizes;
+    }
+}
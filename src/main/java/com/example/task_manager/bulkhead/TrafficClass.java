@@ -0,0 +1,13 @@
+package com.example.task_manager.bulkhead;
+
+/**
+ * Classes de trafic isolées les unes des autres : chacune a sa limite de concurrence et son pool de connexions.
+ */
+public enum TrafficClass {
+    // Lectures et écritures unitaires des utilisateurs, sensibles à la latence
+    INTERACTIVE,
+    // Listes d'administration, parcourant toutes les tâches ou tous les utilisateurs
+    ADMIN,
+    // Traitements par lot et exports
+    BULK
+}
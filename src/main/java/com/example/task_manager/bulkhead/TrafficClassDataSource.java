@@ -0,0 +1,41 @@
+package com.example.task_manager.bulkhead;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Un pool de connexions par classe de trafic sur une même base : une requête d'administration lente
+ * épuise au pire le pool de sa classe, jamais celui des requêtes interactives.
+ * Les classes sans pool dédié, et le travail hors requête, utilisent le pool par défaut.
+ */
+public class TrafficClassDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final List<DataSource> pools = new ArrayList<>();
+
+    public TrafficClassDataSource(DataSource defaultPool, Map<TrafficClass, DataSource> dedicatedPools) {
+        setTargetDataSources(new HashMap<>(dedicatedPools));
+        setDefaultTargetDataSource(defaultPool);
+        pools.add(defaultPool);
+        pools.addAll(dedicatedPools.values());
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TrafficClassHolder.get();
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource pool : pools) {
+            if (pool instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
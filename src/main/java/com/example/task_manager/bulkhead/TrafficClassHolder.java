@@ -0,0 +1,25 @@
+package com.example.task_manager.bulkhead;
+
+/**
+ * Classe de trafic de la requête en cours sur ce thread, lue par {@link TrafficClassDataSource}.
+ */
+public final class TrafficClassHolder {
+
+    private static final ThreadLocal<TrafficClass> CURRENT = new ThreadLocal<>();
+
+    private TrafficClassHolder() {
+    }
+
+    // null hors requête HTTP (tâches planifiées, démarrage)
+    public static TrafficClass get() {
+        return CURRENT.get();
+    }
+
+    public static void set(TrafficClass trafficClass) {
+        CURRENT.set(trafficClass);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
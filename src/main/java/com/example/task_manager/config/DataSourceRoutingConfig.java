@@ -0,0 +1,141 @@
+package com.example.task_manager.config;
+
+import com.example.task_manager.bulkhead.BulkheadProperties;
+import com.example.task_manager.bulkhead.TrafficClass;
+import com.example.task_manager.bulkhead.TrafficClassDataSource;
+import com.example.task_manager.datasource.ReadWriteRoutingDataSource;
+import com.example.task_manager.datasource.ReadYourWritesTracker;
+import com.example.task_manager.datasource.RoutingDataSourceProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Remplace la source de données unique lorsque le routage base primaire / réplicas
+ * ({@code datasource.routing.enabled}) ou le cloisonnement par classe de trafic ({@code bulkhead.enabled})
+ * est actif ; sinon la source de données auto-configurée par Spring Boot reste seule, avec un unique pool.
+ * Chaque base a un pool Hikari par défaut, plus un pool par compartiment qui en déclare la taille ;
+ * tous sont nommés et mesurés séparément (métriques {@code hikaricp.connections.*} étiquetées par pool).
+ */
+@Configuration
+@ConditionalOnExpression("${datasource.routing.enabled:false} or ${bulkhead.enabled:false}")
+@EnableConfigurationProperties({RoutingDataSourceProperties.class, BulkheadProperties.class})
+public class DataSourceRoutingConfig {
+
+    private static final String POOL_PREFIX = "task-manager-";
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(
+            DataSourceProperties dataSourceProperties,
+            RoutingDataSourceProperties routing,
+            BulkheadProperties bulkhead,
+            Environment environment,
+            MeterRegistry meterRegistry
+    ) {
+        Map<TrafficClass, Integer> poolSizes = bulkhead.poolSizes();
+        DataSource primary = database(dataSourceProperties, environment, meterRegistry, poolSizes, "primary",
+                dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(),
+                dataSourceProperties.determinePassword(),
+                false,
+                null);
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; routing.enabled() && i < routing.replicas().size(); i++) {
+            RoutingDataSourceProperties.Replica replica = routing.replicas().get(i);
+            replicas.add(database(dataSourceProperties, environment, meterRegistry, poolSizes, "replica-" + i,
+                    replica.url(),
+                    replica.username() != null ? replica.username() : dataSourceProperties.determineUsername(),
+                    replica.password() != null ? replica.password() : dataSourceProperties.determinePassword(),
+                    true,
+                    replica.maximumPoolSize()));
+        }
+
+        return new ReadWriteRoutingDataSource(
+                primary,
+                replicas,
+                new ReadYourWritesTracker(routing.readYourWritesWindow(), routing.maxPinnedUsers()),
+                meterRegistry
+        );
+    }
+
+    // Connexion obtenue au premier ordre SQL : le routage connaît alors le caractère lecture seule de la transaction
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    // Pool par défaut de la base, complété d'un pool par compartiment dimensionné
+    private static DataSource database(
+            DataSourceProperties dataSourceProperties,
+            Environment environment,
+            MeterRegistry meterRegistry,
+            Map<TrafficClass, Integer> poolSizes,
+            String name,
+            String url,
+            String username,
+            String password,
+            boolean readOnly,
+            Integer maximumPoolSize
+    ) {
+        HikariDataSource defaultPool =
+                pool(dataSourceProperties, environment, meterRegistry, name, url, username, password);
+        defaultPool.setReadOnly(readOnly);
+        if (maximumPoolSize != null) {
+            defaultPool.setMaximumPoolSize(maximumPoolSize);
+        }
+        if (poolSizes.isEmpty()) {
+            return defaultPool;
+        }
+
+        Map<TrafficClass, DataSource> dedicatedPools = new EnumMap<>(TrafficClass.class);
+        poolSizes.forEach((trafficClass, size) -> {
+            HikariDataSource pool = pool(dataSourceProperties, environment, meterRegistry,
+                    name + "-" + trafficClass.name().toLowerCase(Locale.ROOT), url, username, password);
+            pool.setReadOnly(readOnly);
+            pool.setMaximumPoolSize(size);
+            dedicatedPools.put(trafficClass, pool);
+        });
+        return new TrafficClassDataSource(defaultPool, dedicatedPools);
+    }
+
+    // Même configuration Hikari (spring.datasource.hikari.*) pour chaque pool, seuls l'URL et le nom changent
+    private static HikariDataSource pool(
+            DataSourceProperties dataSourceProperties,
+            Environment environment,
+            MeterRegistry meterRegistry,
+            String name,
+            String url,
+            String username,
+            String password
+    ) {
+        HikariDataSource pool = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(POOL_PREFIX + name);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return pool;
+    }
+}
@@ -1,24 +1,43 @@
 package com.example.task_manager.controller;
 
+import com.example.task_manager.bulkhead.Bulkhead;
+import com.example.task_manager.bulkhead.TrafficClass;
 import com.example.task_manager.dto.ApiResponse;
+import com.example.task_manager.dto.CursorPageResponse;
 import com.example.task_manager.dto.PageResponse;
+import com.example.task_manager.dto.Versioned;
 import com.example.task_manager.dto.task.CreateTaskDto;
+import com.example.task_manager.dto.task.TaskBatchResultDto;
+import com.example.task_manager.dto.task.TaskFilterDto;
+import com.example.task_manager.dto.task.TaskPatchDto;
 import com.example.task_manager.dto.task.TaskResponseDto;
+import com.example.task_manager.dto.task.TaskStatsDto;
+import com.example.task_manager.dto.task.TaskSuggestionDto;
+import com.example.task_manager.dto.task.UpdateTaskItemDto;
 import com.example.task_manager.entity.ApiResponseBuilder;
 import com.example.task_manager.service.TaskService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/tasks")
 @Validated
@@ -44,20 +63,30 @@ public class TaskController {
     @GetMapping(value = "/{id}")
     @Operation(
             summary = "Récupérer une tâche par son ID",
-            description = "Retourne les détails d'une tâche spécifique"
+            description = "Retourne les détails d'une tâche spécifique. "
+                    + "Réponse 304 si l'ETag envoyé dans If-None-Match est toujours à jour."
     )
     public ResponseEntity<ApiResponse<TaskResponseDto>> getTaskById(
             @PathVariable @Min(value = 1, message = "L'id doit être supérieur à 0")
-            Long id
+            Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     )
     {
-        return ApiResponseBuilder.success(taskService.findById(id), "Tache trouvée avec succès");
+        // Seules les versions sont lues pour décider du 304 : ni la tâche ni son utilisateur ne sont chargés
+        if (ifNoneMatch != null) {
+            String etag = taskService.findVersion(id).etag();
+            if (Versioned.matches(ifNoneMatch, etag)) {
+                return ApiResponseBuilder.notModified(etag);
+            }
+        }
+        return ApiResponseBuilder.versioned(taskService.findById(id), "Tache trouvée avec succès");
     }
 
     @GetMapping(value = "/user/{userId}")
     @Operation(
             summary = "Récupérer toutes les tâches d'un utilisateur (paginés)",
-            description = "Retourne une page de toutes les tâches assignées à un utilisateur spécifique"
+            description = "Retourne une page de toutes les tâches assignées à un utilisateur spécifique. "
+                    + "Réponse 304 si l'ETag envoyé dans If-None-Match est toujours à jour."
     )
     public ResponseEntity<ApiResponse<PageResponse<TaskResponseDto>>> getTaskByUser(
             @PathVariable @Min(value = 1, message = "L'id doit être supérieur à 0")
@@ -65,18 +94,101 @@ public class TaskController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "5") int size,
             @RequestParam(defaultValue = "id") String sortBy,
-            @RequestParam(defaultValue = "true") boolean ascending
+            @RequestParam(defaultValue = "true") boolean ascending,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     )
     {
+        // L'ETag couvre toutes les pages de l'utilisateur : il change à chaque écriture sur ses tâches
+        if (ifNoneMatch != null) {
+            String etag = taskService.findByUserETag(userId);
+            if (Versioned.matches(ifNoneMatch, etag)) {
+                return ApiResponseBuilder.notModified(etag);
+            }
+        }
+        Sort sort = Sort.by(ascending ? Sort.Direction.ASC : Sort.Direction.DESC, sortBy);
+        Pageable pageable = PageRequest.of(page, size, sort);
+
+        Versioned<Page<TaskResponseDto>> pageResult = taskService.findByUser(userId, pageable);
+
+        return ApiResponseBuilder.versioned(pageResult.map(PageResponse::from), "Taches trouvée avec succès");
+    }
+
+    @GetMapping(value = "/user/{userId}/stats")
+    @Operation(
+            summary = "Statistiques des tâches d'un utilisateur",
+            description = "Retourne le nombre total de tâches, terminées et en cours, "
+                    + "sans parcourir la table des tâches"
+    )
+    public ResponseEntity<ApiResponse<TaskStatsDto>> getTaskStatsByUser(
+            @PathVariable @Min(value = 1, message = "L'id doit être supérieur à 0")
+            Long userId
+    ) {
+        return ApiResponseBuilder.success(taskService.statsByUser(userId), "Statistiques trouvées avec succès");
+    }
+
+    @GetMapping
+    @Operation(
+            summary = "Rechercher des tâches (paginés)",
+            description = "Filtres optionnels combinables : statut, utilisateur, plage de dates de création "
+                    + "et préfixe de titre. Tri possible sur id, title, dateCreation ou done."
+    )
+    public ResponseEntity<ApiResponse<PageResponse<TaskResponseDto>>> searchTasks(
+            @RequestParam(required = false) Boolean done,
+            @RequestParam(required = false) @Min(value = 1, message = "L'id doit être supérieur à 0") Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant createdAfter,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant createdBefore,
+            @RequestParam(required = false) String title,
+            @RequestParam(defaultValue = "0") @Min(0) int page,
+            @RequestParam(defaultValue = "5") @Min(1) @Max(100) int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "true") boolean ascending
+    ) {
         Sort sort = Sort.by(ascending ? Sort.Direction.ASC : Sort.Direction.DESC, sortBy);
         Pageable pageable = PageRequest.of(page, size, sort);
+        TaskFilterDto filter = new TaskFilterDto(done, userId, createdAfter, createdBefore, title);
 
-        Page<TaskResponseDto> pageResult = taskService.findByUser(userId, pageable);
+        Page<TaskResponseDto> pageResult = taskService.search(filter, pageable);
 
         return ApiResponseBuilder.success(PageResponse.from(pageResult), "Taches trouvée avec succès");
     }
 
+    @GetMapping(value = "/search")
+    @Operation(
+            summary = "Recherche plein texte dans le titre et la description des tâches",
+            description = "Résultats classés par pertinence, paginés par curseur. Passer le curseur 'next' de la "
+                    + "réponse pour obtenir la page suivante. Un utilisateur ne cherche que dans ses tâches (userId)."
+    )
+    public ResponseEntity<ApiResponse<CursorPageResponse<TaskResponseDto>>> fullTextSearch(
+            @RequestParam @NotBlank @Size(max = 200) String q,
+            @RequestParam(required = false) @Min(value = 1, message = "L'id doit être supérieur à 0") Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(100) int size
+    ) {
+        return ApiResponseBuilder.success(
+                taskService.fullTextSearch(q, userId, cursor, size),
+                "Taches trouvée avec succès"
+        );
+    }
+
+    @GetMapping(value = "/suggest")
+    @Operation(
+            summary = "Autocomplétion des titres de tâches d'un utilisateur",
+            description = "Titres commençant par le préfixe (sans tenir compte de la casse), servis depuis un index "
+                    + "en mémoire"
+    )
+    public ResponseEntity<ApiResponse<List<TaskSuggestionDto>>> suggestTitles(
+            @RequestParam @Min(value = 1, message = "L'id doit être supérieur à 0") Long userId,
+            @RequestParam @NotBlank @Size(max = 255) String prefix,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(50) int limit
+    ) {
+        return ApiResponseBuilder.success(
+                taskService.suggest(userId, prefix, limit),
+                "Suggestions trouvées avec succès"
+        );
+    }
+
     @GetMapping(value = "/all")
+    @Bulkhead(TrafficClass.ADMIN)
     @Operation(
             summary = "Récupérer toutes les tâches (paginés)",
             description = "Retourne une page de toutes les tâches du système"
@@ -95,6 +207,46 @@ public class TaskController {
         return ApiResponseBuilder.success(PageResponse.from(pageResult), "Liste des taches récupéré avec succès");
     }
 
+    @GetMapping(value = "/user/{userId}/scroll")
+    @Operation(
+            summary = "Parcourir les tâches d'un utilisateur par curseur",
+            description = "Pagination par curseur sans comptage total. Passer le curseur 'next' de la réponse "
+                    + "pour obtenir la page suivante. Tri possible sur id ou dateCreation."
+    )
+    public ResponseEntity<ApiResponse<CursorPageResponse<TaskResponseDto>>> scrollTaskByUser(
+            @PathVariable @Min(value = 1, message = "L'id doit être supérieur à 0")
+            Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "5") @Min(1) @Max(100) int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "true") boolean ascending
+    )
+    {
+        return ApiResponseBuilder.success(
+                taskService.scrollByUser(userId, cursor, size, sortBy, ascending),
+                "Taches trouvée avec succès"
+        );
+    }
+
+    @GetMapping(value = "/scroll")
+    @Bulkhead(TrafficClass.ADMIN)
+    @Operation(
+            summary = "Parcourir toutes les tâches par curseur",
+            description = "Pagination par curseur sans comptage total. Passer le curseur 'next' de la réponse "
+                    + "pour obtenir la page suivante. Tri possible sur id ou dateCreation."
+    )
+    public ResponseEntity<ApiResponse<CursorPageResponse<TaskResponseDto>>> scrollAllTasks(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "5") @Min(1) @Max(100) int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "true") boolean ascending
+    ) {
+        return ApiResponseBuilder.success(
+                taskService.scrollAll(cursor, size, sortBy, ascending),
+                "Liste des taches récupéré avec succès"
+        );
+    }
+
     @PatchMapping(value = "/update/{id}")
     @Operation(
             summary = "Modifier une tâche",
@@ -103,10 +255,84 @@ public class TaskController {
     public ResponseEntity<ApiResponse<TaskResponseDto>> updateTask(
             @Valid @RequestBody CreateTaskDto taskDto,
             @PathVariable @Min(value = 1, message = "L'id doit être supérieur à 0")
-            Long id
+            Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     )
     {
-        return ApiResponseBuilder.success(taskService.update(id, taskDto), "Tache mise à jour avec succès");
+        return ApiResponseBuilder.success(
+                taskService.update(id, taskDto, Versioned.expectedVersion(ifMatch)),
+                "Tache mise à jour avec succès"
+        );
+    }
+
+    @PatchMapping(value = "/{id}", consumes = "application/merge-patch+json")
+    @Operation(
+            summary = "Modifier partiellement une tâche",
+            description = "Applique un JSON Merge Patch : seuls les champs présents sont modifiés"
+    )
+    public ResponseEntity<ApiResponse<TaskResponseDto>> patchTask(
+            @Valid @RequestBody TaskPatchDto patch,
+            @PathVariable @Min(value = 1, message = "L'id doit être supérieur à 0")
+            Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        return ApiResponseBuilder.success(
+                taskService.patch(id, patch, Versioned.expectedVersion(ifMatch)),
+                "Tache mise à jour avec succès"
+        );
+    }
+
+    @PatchMapping(value = "/{id}/toggle-done")
+    @Operation(
+            summary = "Inverser le statut d'une tâche",
+            description = "Passe une tâche de terminée à non terminée ou inversement, en une seule requête SQL"
+    )
+    public ResponseEntity<ApiResponse<String>> toggleTaskDone(
+            @PathVariable @Min(value = 1, message = "L'id doit être supérieur à 0")
+            Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        taskService.toggleDone(id, Versioned.expectedVersion(ifMatch));
+        return ApiResponseBuilder.success(null, "Statut de la tache inversé avec succès");
+    }
+
+    @PostMapping(value = "/batch")
+    @Bulkhead(TrafficClass.BULK)
+    @Operation(
+            summary = "Créer des tâches par lot",
+            description = "Crée jusqu'à 1000 tâches en une requête ; le résultat indique le statut de chaque élément"
+    )
+    public ResponseEntity<ApiResponse<TaskBatchResultDto>> createTasks(
+            @RequestBody @Size(min = 1, max = 1000, message = "Le lot doit contenir entre 1 et 1000 tâches")
+            List<@Valid CreateTaskDto> taskDtos
+    ) {
+        return ApiResponseBuilder.success(taskService.saveAll(taskDtos), "Lot de taches traité");
+    }
+
+    @PatchMapping(value = "/batch")
+    @Bulkhead(TrafficClass.BULK)
+    @Operation(
+            summary = "Modifier des tâches par lot",
+            description = "Met à jour jusqu'à 1000 tâches en une requête ; le résultat indique le statut de chaque élément"
+    )
+    public ResponseEntity<ApiResponse<TaskBatchResultDto>> updateTasks(
+            @RequestBody @Size(min = 1, max = 1000, message = "Le lot doit contenir entre 1 et 1000 tâches")
+            List<@Valid UpdateTaskItemDto> taskDtos
+    ) {
+        return ApiResponseBuilder.success(taskService.updateAll(taskDtos), "Lot de taches traité");
+    }
+
+    @DeleteMapping(value = "/batch")
+    @Bulkhead(TrafficClass.BULK)
+    @Operation(
+            summary = "Supprimer des tâches par lot",
+            description = "Supprime jusqu'à 1000 tâches en une requête ; le résultat indique le statut de chaque élément"
+    )
+    public ResponseEntity<ApiResponse<TaskBatchResultDto>> deleteTasks(
+            @RequestBody @Size(min = 1, max = 1000, message = "Le lot doit contenir entre 1 et 1000 tâches")
+            List<@NotNull @Min(value = 1, message = "L'id doit être supérieur à 0") Long> ids
+    ) {
+        return ApiResponseBuilder.success(taskService.deleteAll(ids), "Lot de taches traité");
     }
 
     @DeleteMapping(value = "/{id}")
@@ -117,10 +343,11 @@ public class TaskController {
     public ResponseEntity<ApiResponse<String>> deleteTask(
             @PathVariable
             @Min(value = 1, message = "L'id doit être supérieur à 0")
-            Long id
+            Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     )
     {
-        taskService.delete(id);
+        taskService.delete(id, Versioned.expectedVersion(ifMatch));
         return ApiResponseBuilder.success(null, "Tache supprimée avec succès");
     }
 
@@ -1,7 +1,11 @@
 package com.example.task_manager.controller;
 
+import com.example.task_manager.bulkhead.Bulkhead;
+import com.example.task_manager.bulkhead.TrafficClass;
 import com.example.task_manager.dto.ApiResponse;
+import com.example.task_manager.dto.CursorPageResponse;
 import com.example.task_manager.dto.PageResponse;
+import com.example.task_manager.dto.Versioned;
 import com.example.task_manager.dto.user.CreateUserDto;
 import com.example.task_manager.dto.user.UpdateUserDto;
 import com.example.task_manager.dto.user.UserResponseDto;
@@ -12,12 +16,14 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -36,6 +42,7 @@ public class UserController {
     }
 
     @GetMapping(value = "/all")
+    @Bulkhead(TrafficClass.ADMIN)
     @Operation(
             summary = "Récupérer les utilisateurs (paginés)",
             description = "Retourne une page d’utilisateurs avec pagination et tri"
@@ -57,17 +64,44 @@ public class UserController {
         );
     }
 
+    @GetMapping(value = "/scroll")
+    @Bulkhead(TrafficClass.ADMIN)
+    @Operation(
+            summary = "Parcourir les utilisateurs par curseur",
+            description = "Pagination par curseur sans comptage total. Passer le curseur 'next' de la réponse "
+                    + "pour obtenir la page suivante. Tri possible sur id ou email."
+    )
+    public ResponseEntity<ApiResponse<CursorPageResponse<UserResponseDto>>> scrollUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "5") @Min(1) @Max(100) int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "true") boolean ascending
+    ) {
+        return ApiResponseBuilder.success(
+                userService.scrollAll(cursor, size, sortBy, ascending),
+                "Liste des utilisateurs récupérée"
+        );
+    }
+
     @GetMapping(value = "/{id}")
     @Operation(
             summary = "Récupérer un utilisateur par son ID",
-            description = "Retourne les informations d'un utilisateur spécifique à partir de son identifiant"
+            description = "Retourne les informations d'un utilisateur spécifique à partir de son identifiant. "
+                    + "Réponse 304 si l'ETag envoyé dans If-None-Match est toujours à jour."
     )
     public ResponseEntity<ApiResponse<UserResponseDto>> getUserById(
             @PathVariable
             @Min(value = 1, message = "L'id doit être supérieur à 0")
-            Long id
+            Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
-        return ApiResponseBuilder.success(userService.findById(id), "Utilisateur récupéré avec succès");
+        if (ifNoneMatch != null) {
+            String etag = userService.findETag(id);
+            if (Versioned.matches(ifNoneMatch, etag)) {
+                return ApiResponseBuilder.notModified(etag);
+            }
+        }
+        return ApiResponseBuilder.versioned(userService.findById(id), "Utilisateur récupéré avec succès");
     }
 
     @GetMapping(value = "/email/{email}")
@@ -90,9 +124,10 @@ public class UserController {
     public ResponseEntity<ApiResponse<String>> deleteUser(
             @PathVariable
             @Min(value = 1, message = "L'id doit être supérieur à 0")
-            Long id
+            Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
-        userService.delete(id);
+        userService.delete(id, Versioned.expectedVersion(ifMatch));
         return ApiResponseBuilder.success(null, "Utilisateur supprimé avec succès");
     }
 
@@ -115,8 +150,12 @@ public class UserController {
             @Valid @RequestBody UpdateUserDto userDto,
             @PathVariable
             @Min(value = 1, message = "L'id doit être supérieur à 0")
-            Long id
+            Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
-        return ApiResponseBuilder.success(userService.update(id, userDto), "Utilisateur modifié avec succès");
+        return ApiResponseBuilder.success(
+                userService.update(id, userDto, Versioned.expectedVersion(ifMatch)),
+                "Utilisateur modifié avec succès"
+        );
     }
 }
@@ -0,0 +1,115 @@
+package com.example.task_manager.datasource;
+
+import com.example.task_manager.security.CurrentUser;
+import com.example.task_manager.transaction.TransactionCallbacks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Envoie les transactions {@code readOnly} aux réplicas (à tour de rôle) et tout le reste à la base primaire.
+ * Un utilisateur qui vient d'écrire lit sur la base primaire pendant la fenêtre de {@link ReadYourWritesTracker}.
+ * Doit être enveloppée dans un {@code LazyConnectionDataSourceProxy} : la connexion n'est alors demandée
+ * qu'au premier ordre SQL, une fois le caractère lecture seule de la transaction connu.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    private final List<DataSource> pools = new ArrayList<>();
+    private final List<String> replicaKeys = new ArrayList<>();
+    private final List<Counter> replicaReads = new ArrayList<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final ReadYourWritesTracker readYourWrites;
+
+    private final Counter primaryWrites;
+    private final Counter primaryPinnedReads;
+
+    public ReadWriteRoutingDataSource(
+            DataSource primary,
+            List<DataSource> replicas,
+            ReadYourWritesTracker readYourWrites,
+            MeterRegistry meterRegistry
+    ) {
+        this.readYourWrites = readYourWrites;
+        this.primaryWrites = routeCounter(meterRegistry, PRIMARY, "read-write");
+        this.primaryPinnedReads = routeCounter(meterRegistry, PRIMARY, "pinned");
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        pools.add(primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            String key = "replica-" + i;
+            targets.put(key, replicas.get(i));
+            pools.add(replicas.get(i));
+            replicaKeys.add(key);
+            replicaReads.add(routeCounter(meterRegistry, key, "read-only"));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+        log.info("Routage des connexions : base primaire et {} réplica(s)", replicas.size());
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, String route, String reason) {
+        return Counter.builder("datasource.routing.connections")
+                .description("Connexions demandées, par source de données et par motif de routage")
+                .tag("route", route)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        // Sans réplica (seul le cloisonnement par classe de trafic est actif), rien à router ni à suivre
+        if (replicaKeys.isEmpty()) {
+            return PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            recordWriteOnCommit();
+            primaryWrites.increment();
+            return PRIMARY;
+        }
+
+        Long userId = CurrentUser.id();
+        if (userId != null && readYourWrites.isPinned(userId)) {
+            primaryPinnedReads.increment();
+            return PRIMARY;
+        }
+
+        int replica = Math.floorMod(nextReplica.getAndIncrement(), replicaKeys.size());
+        replicaReads.get(replica).increment();
+        return replicaKeys.get(replica);
+    }
+
+    // Seule une écriture validée épingle l'utilisateur : un rollback ne laisse rien à relire
+    private void recordWriteOnCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Long userId = CurrentUser.id();
+        if (userId == null) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> readYourWrites.recordWrite(userId));
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource pool : pools) {
+            if (pool instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.task_manager.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+
+/**
+ * Utilisateurs ayant écrit récemment : leurs lectures restent sur la base primaire pendant la fenêtre,
+ * pour qu'ils relisent toujours leurs propres écritures malgré le retard des réplicas.
+ */
+public class ReadYourWritesTracker {
+
+    private final Cache<Long, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(Duration window, long maxUsers) {
+        this(window, maxUsers, Ticker.systemTicker());
+    }
+
+    ReadYourWritesTracker(Duration window, long maxUsers, Ticker ticker) {
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(window)
+                .ticker(ticker)
+                .build();
+    }
+
+    // Chaque écriture repart pour une fenêtre complète
+    public void recordWrite(Long userId) {
+        recentWriters.put(userId, Boolean.TRUE);
+    }
+
+    public boolean isPinned(Long userId) {
+        return recentWriters.getIfPresent(userId) != null;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.task_manager.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Routage des connexions entre la base primaire ({@code spring.datasource.*}) et ses réplicas en lecture.
+ * Les transactions {@code readOnly} vont aux réplicas, tout le reste à la base primaire.
+ *
+ * @param enabled              active le routage (sinon, une seule source de données)
+ * @param readYourWritesWindow durée pendant laquelle les lectures d'un utilisateur restent sur la base primaire
+ *                             après une de ses écritures (couvre le retard de réplication)
+ * @param maxPinnedUsers       nombre maximal d'utilisateurs suivis pendant cette fenêtre
+ * @param replicas             réplicas en lecture, utilisés à tour de rôle
+ */
+@ConfigurationProperties(prefix = "datasource.routing")
+public record RoutingDataSourceProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("5s") Duration readYourWritesWindow,
+        @DefaultValue("100000") long maxPinnedUsers,
+        @DefaultValue List<Replica> replicas
+) {
+
+    /**
+     * @param url             URL JDBC du réplica
+     * @param username        utilisateur, celui de la base primaire si vide
+     * @param password        mot de passe, celui de la base primaire si vide
+     * @param maximumPoolSize taille du pool du réplica, celle de la base primaire si vide
+     */
+    public record Replica(String url, String username, String password, Integer maximumPoolSize) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.task_manager.dto;
+
+import java.util.List;
+
+/**
+ * Page lue par curseur : pas de total (aucun COUNT), {@code next} vaut null sur la dernière page.
+ */
+public record CursorPageResponse<T>(
+        List<T> content, int size, String next
+) {
+}
@@ -0,0 +1,66 @@
+package com.example.task_manager.dto;
+
+import java.util.function.Function;
+
+/**
+ * Représentation accompagnée de son ETag fort, dérivé des versions des entités qui la composent.
+ *
+ * @param body représentation renvoyée au client
+ * @param etag ETag entre guillemets, prêt pour l'en-tête HTTP
+ */
+public record Versioned<T>(T body, String etag) {
+
+    public <R> Versioned<R> map(Function<T, R> mapper) {
+        return new Versioned<>(mapper.apply(body), etag);
+    }
+
+    // ETag fort composé de versions : "3" ou "3.7" (tâche puis utilisateur)
+    public static String etag(long version, long... otherVersions) {
+        StringBuilder etag = new StringBuilder("\"").append(version);
+        for (long other : otherVersions) {
+            etag.append('.').append(other);
+        }
+        return etag.append('"').toString();
+    }
+
+    /**
+     * Comparaison faible d'un en-tête If-None-Match avec l'ETag courant, comme l'exige la RFC 9110.
+     *
+     * @return true si le client possède déjà la représentation courante (réponse 304)
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || (value.startsWith("W/") ? value.substring(2) : value).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Version attendue par un en-tête If-Match : la première version de l'ETag reçu.
+     *
+     * @return null si l'en-tête est absent ou vaut *, -1 s'il ne peut correspondre à aucune version
+     */
+    public static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String etag = ifMatch.split(",")[0].trim();
+        // Comparaison forte : un ETag faible ne satisfait jamais un If-Match
+        if (etag.length() < 3 || etag.startsWith("W/") || !etag.startsWith("\"") || !etag.endsWith("\"")) {
+            return -1L;
+        }
+        String value = etag.substring(1, etag.length() - 1);
+        int separator = value.indexOf('.');
+        try {
+            return Long.parseLong(separator < 0 ? value : value.substring(0, separator));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.task_manager.dto.task;
 
+import com.example.task_manager.security.policy.OwnedResource;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PositiveOrZero;
@@ -9,7 +10,7 @@ import lombok.Setter;
 
 @Getter
 @Setter
-public class CreateTaskDto {
+public class CreateTaskDto implements OwnedResource {
 
     @NotNull
     @PositiveOrZero
@@ -25,4 +26,9 @@ public class CreateTaskDto {
     @NotNull
     private boolean done;
 
+    @Override
+    public Long ownerId() {
+        return userId;
+    }
+
 }
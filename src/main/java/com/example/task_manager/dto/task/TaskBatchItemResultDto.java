@@ -0,0 +1,14 @@
+package com.example.task_manager.dto.task;
+
+/**
+ * Résultat d'un élément d'un lot.
+ *
+ * @param index   position de l'élément dans la requête
+ * @param id      id de la tâche (null si la création a échoué)
+ * @param status  code HTTP équivalent au traitement unitaire de l'élément
+ * @param message détail de l'échec, null en cas de succès
+ */
+public record TaskBatchItemResultDto(
+        int index, Long id, int status, String message
+) {
+}
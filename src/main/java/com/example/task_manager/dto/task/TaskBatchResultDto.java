@@ -0,0 +1,12 @@
+package com.example.task_manager.dto.task;
+
+import java.util.List;
+
+public record TaskBatchResultDto(
+        List<TaskBatchItemResultDto> items, int succeeded, int failed
+) {
+    public static TaskBatchResultDto of(List<TaskBatchItemResultDto> items) {
+        int succeeded = (int) items.stream().filter(item -> item.message() == null).count();
+        return new TaskBatchResultDto(items, succeeded, items.size() - succeeded);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.task_manager.dto.task;
+
+import com.example.task_manager.security.policy.OwnedResource;
+
+import java.time.Instant;
+
+/**
+ * Critères optionnels de recherche des tâches : un critère null n'est pas appliqué.
+ */
+public record TaskFilterDto(
+        Boolean done, Long userId, Instant createdAfter, Instant createdBefore, String titlePrefix
+) implements OwnedResource {
+
+    // Sans filtre utilisateur, la recherche porte sur toutes les tâches : réservée aux administrateurs
+    @Override
+    public Long ownerId() {
+        return userId;
+    }
+}
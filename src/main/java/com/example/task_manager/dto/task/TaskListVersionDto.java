@@ -0,0 +1,14 @@
+package com.example.task_manager.dto.task;
+
+import com.example.task_manager.dto.Versioned;
+
+/**
+ * Compteurs d'un utilisateur et version de son profil : le total des pages de ses tâches et l'ETag
+ * de ces pages, qui change à chaque écriture sur ses tâches ou sur son profil.
+ */
+public record TaskListVersionDto(long total, long changes, long userVersion) {
+
+    public String etag() {
+        return Versioned.etag(changes, userVersion);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.task_manager.dto.task;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+
+/**
+ * Corps d'un JSON Merge Patch (RFC 7396) sur une tâche : seuls les champs présents dans le document
+ * sont appliqués. Jackson n'appelle les setters que pour les champs présents, ce qui distingue
+ * un champ absent d'un champ explicitement null.
+ */
+@Getter
+public class TaskPatchDto {
+
+    @Size(min = 3, max = 50)
+    private String title;
+
+    private String description;
+
+    private Boolean done;
+
+    @PositiveOrZero
+    private Long userId;
+
+    @JsonIgnore
+    private boolean titlePresent;
+
+    @JsonIgnore
+    private boolean descriptionPresent;
+
+    @JsonIgnore
+    private boolean donePresent;
+
+    @JsonIgnore
+    private boolean userIdPresent;
+
+    public void setTitle(String title) {
+        this.title = title;
+        this.titlePresent = true;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+        this.descriptionPresent = true;
+    }
+
+    public void setDone(Boolean done) {
+        this.done = done;
+        this.donePresent = true;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+        this.userIdPresent = true;
+    }
+
+    // Tous les champs d'une tâche sont obligatoires : null (suppression au sens du Merge Patch) est refusé
+    @JsonIgnore
+    @AssertTrue(message = "Un champ présent ne peut être ni null ni vide")
+    public boolean isApplicable() {
+        return (!titlePresent || title != null && !title.isBlank())
+                && (!descriptionPresent || description != null && !description.isBlank())
+                && (!donePresent || done != null)
+                && (!userIdPresent || userId != null);
+    }
+}
@@ -1,8 +1,15 @@
 package com.example.task_manager.dto.task;
 
 import com.example.task_manager.dto.user.UserResponseDto;
+import com.example.task_manager.enumeration.Role;
 
 public record TaskResponseDto(
         Long id, String title, String description, boolean done, UserResponseDto user
 ) {
+
+    // Constructeur des projections JPQL : colonnes de la tâche et de son utilisateur en une seule jointure
+    public TaskResponseDto(Long id, String title, String description, boolean done,
+                           Long userId, String userName, String userEmail, Role userRole) {
+        this(id, title, description, done, new UserResponseDto(userId, userName, userEmail, userRole.name()));
+    }
 }
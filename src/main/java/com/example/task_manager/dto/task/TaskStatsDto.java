@@ -0,0 +1,6 @@
+package com.example.task_manager.dto.task;
+
+public record TaskStatsDto(
+        Long userId, long total, long done, long pending
+) {
+}
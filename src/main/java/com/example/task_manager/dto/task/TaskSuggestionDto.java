@@ -0,0 +1,6 @@
+package com.example.task_manager.dto.task;
+
+public record TaskSuggestionDto(
+        Long id, String title
+) {
+}
@@ -0,0 +1,13 @@
+package com.example.task_manager.dto.task;
+
+import com.example.task_manager.dto.Versioned;
+
+/**
+ * Versions d'une tâche et de son utilisateur, lues sans charger la tâche : de quoi répondre 304.
+ */
+public record TaskVersionDto(Long userId, long version, long userVersion) {
+
+    public String etag() {
+        return Versioned.etag(version, userVersion);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.task_manager.dto.task;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Élément d'une mise à jour par lot : la tâche visée et ses nouvelles valeurs.
+ */
+@Getter
+@Setter
+public class UpdateTaskItemDto extends CreateTaskDto {
+
+    @NotNull
+    @Positive
+    private Long id;
+
+}
@@ -0,0 +1,21 @@
+package com.example.task_manager.dto.task;
+
+import com.example.task_manager.dto.Versioned;
+import com.example.task_manager.enumeration.Role;
+
+/**
+ * Ligne de projection JPQL : la réponse d'une tâche et les versions qui composent son ETag, en une requête.
+ */
+public record VersionedTaskResponseDto(TaskResponseDto task, long version, long userVersion) {
+
+    public VersionedTaskResponseDto(Long id, String title, String description, boolean done,
+                                    Long userId, String userName, String userEmail, Role userRole,
+                                    long version, long userVersion) {
+        this(new TaskResponseDto(id, title, description, done, userId, userName, userEmail, userRole),
+                version, userVersion);
+    }
+
+    public Versioned<TaskResponseDto> versioned() {
+        return new Versioned<>(task, Versioned.etag(version, userVersion));
+    }
+}
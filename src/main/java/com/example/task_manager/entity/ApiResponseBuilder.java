@@ -1,6 +1,8 @@
 package com.example.task_manager.entity;
 
 import com.example.task_manager.dto.ApiResponse;
+import com.example.task_manager.dto.Versioned;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -10,8 +12,26 @@ public class ApiResponseBuilder {
         return ResponseEntity.ok(new ApiResponse<>(true, message, data, HttpStatus.OK.value()));
     }
 
+    // Réponse accompagnée de son ETag : un GET conditionnel ultérieur pourra recevoir un 304
+    public static <T> ResponseEntity <ApiResponse<T>> versioned(Versioned<T> data, String message) {
+        return ResponseEntity.ok()
+                .eTag(data.etag())
+                .body(new ApiResponse<>(true, message, data.body(), HttpStatus.OK.value()));
+    }
+
+    public static <T> ResponseEntity <ApiResponse<T>> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+
     public static <T> ResponseEntity <ApiResponse<T>> error(String message, HttpStatus status, T data) {
         return ResponseEntity.status(status).body(new ApiResponse<>(false, message, data, status.value()));
     }
 
+    public static <T> ResponseEntity <ApiResponse<T>> error(
+            String message, HttpStatus status, T data, HttpHeaders headers) {
+        return ResponseEntity.status(status)
+                .headers(headers)
+                .body(new ApiResponse<>(false, message, data, status.value()));
+    }
+
 }
@@ -2,11 +2,16 @@ package com.example.task_manager.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 
 @Entity
 @Table(name = "tasks")
+// UPDATE limité aux colonnes modifiées : une modification partielle ne réécrit pas toute la ligne
+@DynamicUpdate
+@NamedEntityGraph(name = Task.WITH_USER, attributeNodes = @NamedAttributeNode("user"))
 @Getter
 @Setter
 @AllArgsConstructor
@@ -14,17 +19,26 @@ import java.time.Instant;
 @Builder
 public class Task {
 
+    // Plan de chargement des endpoints qui sérialisent l'utilisateur de chaque tâche
+    public static final String WITH_USER = "Task.withUser";
+
+    // Séquence allouée par blocs (V10) : pas d'aller-retour par insertion, insertions regroupées par lots JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_id_seq")
+    @SequenceGenerator(name = "tasks_id_seq", sequenceName = "tasks_id_seq", allocationSize = 50)
     private Long id;
 
+    // Verrouillage optimiste : une écriture concurrente est refusée au lieu d'écraser l'autre
+    @Version
+    private Long version;
+
     @Column(nullable = false, unique = true)
     private String title;
 
     @Column(nullable = false)
     private String description;
 
-    @ManyToOne()
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
@@ -36,7 +50,8 @@ public class Task {
 
     @PrePersist
     public void prePersist() {
-        dateCreation = Instant.now();
+        // Précision de la colonne en base : le curseur construit depuis l'entité doit égaler la valeur stockée
+        dateCreation = Instant.now().truncatedTo(ChronoUnit.MICROS);
     }
 
 }
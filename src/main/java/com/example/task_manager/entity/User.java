@@ -3,6 +3,7 @@ package com.example.task_manager.entity;
 import com.example.task_manager.enumeration.Role;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.Instant;
 import java.util.ArrayList;
@@ -17,10 +18,16 @@ import java.util.List;
 @Builder
 public class User {
 
+    // Séquence allouée par blocs (V10) : pas d'aller-retour par insertion, insertions regroupées par lots JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+    @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", allocationSize = 50)
     private Long id;
 
+    // Verrouillage optimiste : une écriture concurrente est refusée au lieu d'écraser l'autre
+    @Version
+    private Long version;
+
     @Column(nullable = false)
     private String name;
 
@@ -54,7 +61,13 @@ public class User {
     @Builder.Default
     private boolean credentialsNonExpired = true;
 
-    @OneToMany(mappedBy = "user")
+    @Column(nullable = false)
+    @Builder.Default
+    private int tokenVersion = 0;
+
+    // Jamais parcourue par les endpoints : les tâches se lisent via TaskRepository
+    @OneToMany(mappedBy = "user", fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     @Builder.Default
     private List<Task> tasks = new ArrayList<>();
 
@@ -0,0 +1,60 @@
+package com.example.task_manager.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+@Entity
+@Table(name = "user_task_stats")
+@Getter
+@Setter
+@NoArgsConstructor
+public class UserTaskStats implements Persistable<Long> {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private long total;
+
+    @Column(nullable = false)
+    private long done;
+
+    // Incrémenté à chaque écriture touchant les tâches de l'utilisateur : ETag de ses listes de tâches
+    @Column(nullable = false)
+    private long changes;
+
+    // Identifiant assigné, sans @Version : sans cet indicateur, save ferait un merge (SELECT puis INSERT)
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean persisted;
+
+    public UserTaskStats(Long userId, long total, long done) {
+        this.userId = userId;
+        this.total = total;
+        this.done = done;
+    }
+
+    public long getPending() {
+        return total - done;
+    }
+
+    @Override
+    public Long getId() {
+        return userId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.example.task_manager.exception;
+
+import com.example.task_manager.bulkhead.TrafficClass;
+import lombok.Getter;
+
+@Getter
+public class BulkheadFullException extends RuntimeException {
+
+    private final TrafficClass trafficClass;
+    private final long retryAfterSeconds;
+
+    public BulkheadFullException(TrafficClass trafficClass, long retryAfterSeconds) {
+        super("Le service est saturé pour ce type de requête, veuillez réessayer dans "
+                + retryAfterSeconds + " seconde(s)");
+        this.trafficClass = trafficClass;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.task_manager.exception;
+
+import java.sql.SQLException;
+
+/**
+ * Nature d'une violation de contrainte remontée par la base, d'après le SQLState standard :
+ * identique sous PostgreSQL et H2, contrairement aux noms de contraintes.
+ */
+public final class DataIntegrityViolations {
+
+    private static final String UNIQUE_VIOLATION = "23505";
+    private static final String POSTGRES_FOREIGN_KEY_VIOLATION = "23503";
+    private static final String H2_FOREIGN_KEY_PARENT_MISSING = "23506";
+
+    private DataIntegrityViolations() {
+    }
+
+    public static boolean isUniqueViolation(Throwable ex) {
+        return UNIQUE_VIOLATION.equals(sqlState(ex));
+    }
+
+    public static boolean isForeignKeyViolation(Throwable ex) {
+        String sqlState = sqlState(ex);
+        return POSTGRES_FOREIGN_KEY_VIOLATION.equals(sqlState) || H2_FOREIGN_KEY_PARENT_MISSING.equals(sqlState);
+    }
+
+    private static String sqlState(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && sqlException.getSQLState() != null) {
+                return sqlException.getSQLState();
+            }
+        }
+        return null;
+    }
+}
@@ -4,6 +4,9 @@ import com.example.task_manager.dto.ApiResponse;
 import com.example.task_manager.entity.ApiResponseBuilder;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -62,6 +65,13 @@ public class GlobalExceptionHandler {
         return ApiResponseBuilder.error(ex.getMessage(), HttpStatus.BAD_REQUEST, null);
     }
 
+    @ExceptionHandler(InvalidPageRequestException.class)
+    public ResponseEntity<ApiResponse<String>> handleInvalidPageRequestException(
+            final InvalidPageRequestException ex) {
+        log.warn("Requête de pagination invalide : {}", ex.getMessage());
+        return ApiResponseBuilder.error(ex.getMessage(), HttpStatus.BAD_REQUEST, null);
+    }
+
     @ExceptionHandler(ConstraintViolationException.class)
     public ResponseEntity<ApiResponse<String>> handleConstraintViolationException(
             final ConstraintViolationException ex) {
@@ -69,6 +79,40 @@ public class GlobalExceptionHandler {
         return ApiResponseBuilder.error(ex.getMessage(), HttpStatus.BAD_REQUEST, null);
     }
 
+    // Filet de sécurité pour les violations que le service n'a pas traduites en exception métier
+    // (par exemple détectées au flush du commit) : la ressource n'est jamais créée à moitié
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ApiResponse<String>> handleDataIntegrityViolationException(
+            final DataIntegrityViolationException ex) {
+        log.warn("Violation de contrainte en base : {}", ex.getMostSpecificCause().getMessage());
+        if (DataIntegrityViolations.isUniqueViolation(ex)) {
+            return ApiResponseBuilder.error("La ressource existe déjà", HttpStatus.CONFLICT, null);
+        }
+        if (DataIntegrityViolations.isForeignKeyViolation(ex)) {
+            return ApiResponseBuilder.error("Une ressource référencée n'existe pas", HttpStatus.NOT_FOUND, null);
+        }
+        return ApiResponseBuilder.error("Données incompatibles avec l'état de la base", HttpStatus.CONFLICT, null);
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ApiResponse<String>> handlePreconditionFailedException(
+            final PreconditionFailedException ex) {
+        log.warn("Précondition If-Match non satisfaite : {}", ex.getMessage());
+        return ApiResponseBuilder.error(ex.getMessage(), HttpStatus.PRECONDITION_FAILED, null);
+    }
+
+    // Écriture concurrente détectée par @Version entre la lecture et le flush : le client doit relire
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponse<String>> handleOptimisticLockingFailureException(
+            final OptimisticLockingFailureException ex) {
+        log.warn("Conflit d'écriture concurrente : {}", ex.getMessage());
+        return ApiResponseBuilder.error(
+                "La ressource a été modifiée par une autre requête, veuillez la relire",
+                HttpStatus.CONFLICT,
+                null
+        );
+    }
+
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity<ApiResponse<String>> handleBadCredentials() {
         log.warn("Échec d'authentification : identifiants incorrects");
@@ -119,6 +163,22 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(PasswordHashingUnavailableException.class)
+    public ResponseEntity<ApiResponse<String>> handlePasswordHashingUnavailable(
+            final PasswordHashingUnavailableException ex) {
+        log.warn("Hachage de mot de passe rejeté : file d'attente saturée");
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+        return ApiResponseBuilder.error(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE, null, headers);
+    }
+
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<ApiResponse<String>> handleBulkheadFull(final BulkheadFullException ex) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+        return ApiResponseBuilder.error(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE, null, headers);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse<String>> handleGlobalException(Exception ex) {
         log.error("UNE ERREUR CRITIQUE INTERNE EST SURVENUE : ", ex);
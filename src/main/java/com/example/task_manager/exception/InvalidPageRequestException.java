@@ -0,0 +1,7 @@
+package com.example.task_manager.exception;
+
+public class InvalidPageRequestException extends RuntimeException {
+    public InvalidPageRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.task_manager.exception;
+
+import lombok.Getter;
+
+@Getter
+public class PasswordHashingUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingUnavailableException(long retryAfterSeconds) {
+        super("Le service d'authentification est saturé, veuillez réessayer dans " + retryAfterSeconds + " seconde(s)");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.task_manager.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String resource, Long id) {
+        super("La ressource " + resource + " " + id + " a été modifiée depuis sa dernière lecture");
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.task_manager.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Alternative optionnelle à la séquence pour les entités à très fort débit d'insertion :
+ * placée sur l'attribut {@code @Id} à la place de {@code @GeneratedValue}, l'identifiant est produit
+ * par {@link TimeOrderedIdGenerator} sans aucun accès à la base.
+ * Les valeurs produites (de l'ordre de 10^17) restent supérieures aux identifiants issus des séquences,
+ * une entité existante peut donc basculer sans collision.
+ * Le numéro de nœud se règle avec {@code spring.jpa.properties.task_manager.id.node-id}.
+ */
+@IdGeneratorType(TimeOrderedIdentifierGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface TimeOrderedId {
+}
@@ -0,0 +1,80 @@
+package com.example.task_manager.id;
+
+import java.time.Instant;
+import java.util.function.LongSupplier;
+
+/**
+ * Identifiants 64 bits ordonnés dans le temps, générés sans accès à la base.
+ * Disposition (bit de signe toujours à 0) : 41 bits de millisecondes depuis {@link #EPOCH},
+ * 10 bits de numéro de nœud, 12 bits de compteur dans la milliseconde, soit 4096 identifiants
+ * par milliseconde et par nœud pendant environ 69 ans.
+ * Chaque instance de l'application doit utiliser un numéro de nœud distinct.
+ */
+public final class TimeOrderedIdGenerator {
+
+    public static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    // Recul d'horloge toléré (ajustement NTP) : au-delà, la génération échoue plutôt que de risquer un doublon
+    private static final long MAX_CLOCK_BACKWARD_MILLIS = 10;
+
+    private final long nodeBits;
+    private final LongSupplier clock;
+
+    private long lastMillis = -1;
+    private long sequence;
+
+    public TimeOrderedIdGenerator(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    TimeOrderedIdGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Le numéro de nœud doit être compris entre 0 et " + MAX_NODE_ID);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+    }
+
+    public synchronized long nextId() {
+        long now = clock.getAsLong();
+        if (now < lastMillis) {
+            if (lastMillis - now > MAX_CLOCK_BACKWARD_MILLIS) {
+                throw new IllegalStateException("Horloge reculée de " + (lastMillis - now) + " ms");
+            }
+            now = waitUntilAfter(lastMillis - 1);
+        }
+
+        if (now == lastMillis) {
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+            if (sequence == 0) {
+                // Compteur épuisé pour cette milliseconde : on attend la suivante
+                now = waitUntilAfter(lastMillis);
+            }
+        } else {
+            sequence = 0;
+        }
+        lastMillis = now;
+
+        return ((now - EPOCH.toEpochMilli()) << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | sequence;
+    }
+
+    // Instant de génération d'un identifiant, utile pour le diagnostic
+    public static Instant timestampOf(long id) {
+        return Instant.ofEpochMilli((id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH.toEpochMilli());
+    }
+
+    private long waitUntilAfter(long millis) {
+        long now = clock.getAsLong();
+        while (now <= millis) {
+            Thread.onSpinWait();
+            now = clock.getAsLong();
+        }
+        return now;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.task_manager.id;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.GeneratorCreationContext;
+import org.hibernate.id.IdentifierGenerator;
+
+import java.lang.reflect.Member;
+
+/**
+ * Branche {@link TimeOrderedIdGenerator} sur Hibernate pour les attributs annotés {@link TimeOrderedId}.
+ */
+public class TimeOrderedIdentifierGenerator implements IdentifierGenerator {
+
+    static final String NODE_ID_SETTING = "task_manager.id.node-id";
+
+    private final TimeOrderedIdGenerator generator;
+
+    public TimeOrderedIdentifierGenerator(TimeOrderedId config, Member member, GeneratorCreationContext context) {
+        int nodeId = context.getServiceRegistry()
+                .requireService(ConfigurationService.class)
+                .getSetting(NODE_ID_SETTING, StandardConverters.INTEGER, 0);
+        this.generator = new TimeOrderedIdGenerator(nodeId);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return generator.nextId();
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.task_manager.pagination;
+
+import com.example.task_manager.exception.InvalidPageRequestException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Pagination par curseur (keyset) : le curseur opaque encode la clé de tri et l'id de la dernière ligne
+ * renvoyée, la page suivante est lue avec {@code WHERE (sort_col, id) > (?, ?)} sans {@code COUNT(*)}.
+ * Seules les colonnes indexées déclarées dans {@code sortableColumns} sont acceptées.
+ */
+public final class KeysetCursor {
+
+    private static final String ID = "id";
+    private static final String SEPARATOR = "|";
+
+    private final Map<String, Function<String, Object>> sortableColumns;
+
+    /**
+     * @param sortableColumns colonnes triables, associées au parseur de leur valeur encodée dans le curseur
+     */
+    public KeysetCursor(Map<String, Function<String, Object>> sortableColumns) {
+        this.sortableColumns = sortableColumns;
+    }
+
+    public Sort sort(String sortBy, boolean ascending) {
+        checkSortable(sortBy);
+        Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sort = Sort.by(direction, sortBy);
+        return ID.equals(sortBy) ? sort : sort.and(Sort.by(direction, ID));
+    }
+
+    public ScrollPosition position(String cursor, String sortBy) {
+        checkSortable(sortBy);
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        String[] parts = decode(cursor, sortBy);
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        try {
+            keys.put(sortBy, sortableColumns.get(sortBy).apply(parts[1]));
+            keys.put(ID, Long.valueOf(parts[0]));
+        } catch (RuntimeException e) {
+            throw new InvalidPageRequestException("Curseur invalide");
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    // Curseur de la page suivante, null s'il n'y en a pas
+    public <T> String next(Window<T> window, String sortBy) {
+        if (!window.hasNext() || window.isEmpty()) {
+            return null;
+        }
+        Map<String, ?> keys = ((KeysetScrollPosition) window.positionAt(window.size() - 1)).getKeys();
+        return encode(keys.get(ID), sortBy, keys.get(sortBy));
+    }
+
+    private void checkSortable(String sortBy) {
+        if (!sortableColumns.containsKey(sortBy)) {
+            throw new InvalidPageRequestException(
+                    "Tri par curseur impossible sur '" + sortBy + "', colonnes autorisées : "
+                            + sortableColumns.keySet());
+        }
+    }
+
+    /**
+     * Encode la position d'une ligne : utilisable par les requêtes qui ne passent pas par {@link Window}.
+     */
+    public static String encode(Object id, String sortBy, Object value) {
+        String raw = id + SEPARATOR + sortBy + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return l'id et la valeur de tri encodés par {@link #encode}, dans cet ordre (valeurs brutes)
+     * @throws InvalidPageRequestException si le curseur est illisible ou issu d'un autre tri
+     */
+    public static String[] decode(String cursor, String sortBy) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                    .split("\\" + SEPARATOR, 3);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPageRequestException("Curseur invalide");
+        }
+        if (parts.length != 3 || !parts[1].equals(sortBy)) {
+            throw new InvalidPageRequestException("Curseur invalide pour le tri par " + sortBy);
+        }
+        return new String[] {parts[0], parts[2]};
+    }
+}
@@ -1,16 +1,119 @@
 package com.example.task_manager.repository;
 
+import com.example.task_manager.dto.task.TaskResponseDto;
+import com.example.task_manager.dto.task.TaskSuggestionDto;
+import com.example.task_manager.dto.task.TaskVersionDto;
+import com.example.task_manager.dto.task.VersionedTaskResponseDto;
 import com.example.task_manager.entity.Task;
 import com.example.task_manager.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
-    Page<Task> findAllByUser(User user, Pageable pageable);
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
+    @EntityGraph(Task.WITH_USER)
+    Slice<Task> findAllByUser(User user, Pageable pageable);
     Optional<Task> findByTitle(String title);
+
+    // Inversion du statut en une seule instruction, sans lecture préalable de la tâche.
+    // Avec If-Match, la version attendue fait partie de la condition (null : pas de précondition)
+    @Modifying
+    @Query("update Task t set t.done = case when t.done = true then false else true end, t.version = t.version + 1 "
+            + "where t.id = :id and (:version is null or t.version = :version)")
+    int toggleDone(@Param("id") Long id, @Param("version") Long version);
+
+    // Idem, limité aux tâches de l'utilisateur : la condition de propriété remplace le contrôle préalable
+    @Modifying
+    @Query("update Task t set t.done = case when t.done = true then false else true end, t.version = t.version + 1 "
+            + "where t.id = :id and t.user.id = :userId and (:version is null or t.version = :version)")
+    int toggleDoneOwnedBy(@Param("id") Long id, @Param("userId") Long userId, @Param("version") Long version);
+
+    // Construction du filtre d'existence des titres : parcours par blocs, sans charger la table en mémoire
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select t.title from Task t")
+    Stream<String> streamAllTitles();
+
+    // Recherche filtrée : la page et ses utilisateurs en une seule requête (plus le COUNT de la page)
+    @Override
+    @EntityGraph(Task.WITH_USER)
+    Page<Task> findAll(Specification<Task> specification, Pageable pageable);
+
+    // Détail : la tâche et son utilisateur en une seule requête
+    @Override
+    @EntityGraph(Task.WITH_USER)
+    Optional<Task> findById(Long id);
+
+    // Idem, limité aux tâches de l'utilisateur : la propriété est vérifiée par la requête de chargement elle-même
+    @EntityGraph(Task.WITH_USER)
+    Optional<Task> findByIdAndUserId(Long id, Long userId);
+
+    // Lot : seules les tâches de l'utilisateur sont chargées, les autres ids sont absents du résultat
+    List<Task> findAllByIdInAndUserId(Collection<Long> ids, Long userId);
+
+    // Slice : le total est lu dans user_task_stats, pas de COUNT(*) par page.
+    // Projections de lecture : colonnes du DTO en une seule jointure, sans entité gérée par le contexte
+    String RESPONSE_PROJECTION = """
+            select new com.example.task_manager.dto.task.TaskResponseDto(
+                t.id, t.title, t.description, t.done, u.id, u.name, u.email, u.role)
+            from Task t join t.user u
+            """;
+
+    @Query(RESPONSE_PROJECTION)
+    Slice<TaskResponseDto> findAllProjectedBy(Pageable pageable);
+
+    // Lecture d'une tâche avec les versions de son ETag, toujours en une seule requête.
+    // ownerId restreint aux tâches de cet utilisateur (null : aucune restriction, administrateur)
+    @Query("""
+            select new com.example.task_manager.dto.task.VersionedTaskResponseDto(
+                t.id, t.title, t.description, t.done, u.id, u.name, u.email, u.role, t.version, u.version)
+            from Task t join t.user u
+            where t.id = :id and (:ownerId is null or u.id = :ownerId)
+            """)
+    Optional<VersionedTaskResponseDto> findVersionedById(@Param("id") Long id, @Param("ownerId") Long ownerId);
+
+    // Versions seules, pour répondre 304 sans charger la tâche ; même restriction de propriétaire
+    @Query("select new com.example.task_manager.dto.task.TaskVersionDto(u.id, t.version, u.version) "
+            + "from Task t join t.user u where t.id = :id and (:ownerId is null or u.id = :ownerId)")
+    Optional<TaskVersionDto> findVersionById(@Param("id") Long id, @Param("ownerId") Long ownerId);
+
+    @Query(RESPONSE_PROJECTION + "where u.id = :userId")
+    Slice<TaskResponseDto> findAllProjectedByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // Construction de l'index d'autocomplétion d'un utilisateur
+    @Query("select new com.example.task_manager.dto.task.TaskSuggestionDto(t.id, t.title) "
+            + "from Task t where t.user.id = :userId")
+    List<TaskSuggestionDto> findSuggestionsByUserId(@Param("userId") Long userId);
+
+    // Titres déjà pris parmi ceux d'un lot, en une requête
+    @Query("select new com.example.task_manager.dto.task.TaskSuggestionDto(t.id, t.title) "
+            + "from Task t where t.title in :titles")
+    List<TaskSuggestionDto> findIdAndTitleByTitleIn(@Param("titles") Collection<String> titles);
+
+    // Pagination par curseur : aucune requête COUNT
+    @EntityGraph(Task.WITH_USER)
+    Window<Task> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+    // Par id : l'utilisateur n'est pas chargé avant ses tâches
+    @EntityGraph(Task.WITH_USER)
+    Window<Task> findAllByUserId(Long userId, ScrollPosition position, Sort sort, Limit limit);
 }
@@ -0,0 +1,152 @@
+package com.example.task_manager.repository;
+
+import com.example.task_manager.dto.CursorPageResponse;
+import com.example.task_manager.dto.task.TaskResponseDto;
+import com.example.task_manager.dto.user.UserResponseDto;
+import com.example.task_manager.exception.InvalidPageRequestException;
+import com.example.task_manager.pagination.KeysetCursor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Recherche plein texte classée sur le titre et la description des tâches, paginée par curseur sur (rang, id).
+ * <p>
+ * Sous PostgreSQL : colonne générée {@code search_vector} (index GIN) et {@code ts_rank}.
+ * Sur les autres bases (H2 du profil de test) : repli équivalent par {@code LIKE} sur chaque mot,
+ * un mot trouvé dans le titre valant plus qu'un mot trouvé dans la description.
+ */
+@Repository
+@Slf4j
+public class TaskSearchRepository {
+
+    private static final String RANK = "rank";
+    private static final int MAX_TERMS = 10;
+
+    private static final String SELECT_PAGE = """
+            SELECT r.id, r.title, r.description, r.done, r.user_id, u.name, u.email, u.role, r.rank
+            FROM (%s) r
+            JOIN users u ON u.id = r.user_id
+            %s
+            ORDER BY r.rank DESC, r.id
+            LIMIT :limit
+            """;
+
+    private static final String POSTGRES_MATCHES = """
+            SELECT t.id, t.title, t.description, t.done, t.user_id,
+                   CAST(ts_rank(t.search_vector, q.query) AS REAL) AS rank
+            FROM tasks t, websearch_to_tsquery('french', :q) AS q(query)
+            WHERE t.search_vector @@ q.query
+            """;
+
+    // Page suivante : rang inférieur, ou même rang et id supérieur
+    private static final String AFTER_CURSOR = "WHERE r.rank < :lastRank OR (r.rank = :lastRank AND r.id > :lastId)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final boolean postgres;
+
+    public TaskSearchRepository(NamedParameterJdbcTemplate jdbcTemplate, DataSource dataSource) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.postgres = isPostgres(dataSource);
+        log.info("Recherche plein texte des tâches : {}", postgres ? "tsvector PostgreSQL" : "repli LIKE");
+    }
+
+    /**
+     * @param query  texte recherché (syntaxe web sous PostgreSQL : mots, "expression", -exclusion)
+     * @param userId restreint la recherche aux tâches de cet utilisateur, toutes les tâches si null
+     * @param cursor curseur {@code next} de la page précédente, null pour la première page
+     * @param size   nombre de résultats par page
+     */
+    public CursorPageResponse<TaskResponseDto> search(String query, Long userId, String cursor, int size) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("limit", size + 1);
+        String keyset = "";
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = KeysetCursor.decode(cursor, RANK);
+            try {
+                params.addValue("lastId", Long.valueOf(position[0]));
+                params.addValue("lastRank", Float.valueOf(position[1]));
+            } catch (NumberFormatException e) {
+                throw new InvalidPageRequestException("Curseur invalide");
+            }
+            keyset = AFTER_CURSOR;
+        }
+
+        String matches;
+        if (postgres) {
+            params.addValue("q", query);
+            matches = POSTGRES_MATCHES;
+        } else {
+            matches = fallbackMatches(query, params);
+        }
+        if (userId != null) {
+            matches += " AND t.user_id = :userId";
+        }
+
+        List<Float> ranks = new ArrayList<>();
+        String sql = SELECT_PAGE.formatted(matches, keyset);
+        List<TaskResponseDto> content = jdbcTemplate.query(sql, params, (rs, rowNum) -> {
+            ranks.add(rs.getFloat("rank"));
+            return new TaskResponseDto(
+                    rs.getLong("id"),
+                    rs.getString("title"),
+                    rs.getString("description"),
+                    rs.getBoolean("done"),
+                    new UserResponseDto(
+                            rs.getLong("user_id"), rs.getString("name"), rs.getString("email"), rs.getString("role"))
+            );
+        });
+
+        String next = null;
+        if (content.size() > size) {
+            content = content.subList(0, size);
+            TaskResponseDto last = content.getLast();
+            next = KeysetCursor.encode(last.id(), RANK, ranks.get(size - 1));
+        }
+        return new CursorPageResponse<>(List.copyOf(content), content.size(), next);
+    }
+
+    // Tous les mots doivent apparaître dans le titre ou la description ; rang = 2 par mot du titre, 1 par mot
+    // de la description, normalisé comme ts_rank dans [0, 1]
+    private static String fallbackMatches(String query, MapSqlParameterSource params) {
+        String[] terms = query.trim().toLowerCase(Locale.ROOT).split("\\s+", MAX_TERMS + 1);
+        int count = Math.min(terms.length, MAX_TERMS);
+        StringBuilder rank = new StringBuilder("0");
+        StringBuilder where = new StringBuilder("1 = 1");
+        for (int i = 0; i < count; i++) {
+            String term = ":term" + i;
+            params.addValue("term" + i, "%" + escapeLike(terms[i]) + "%");
+            rank.append(" + CASE WHEN LOWER(t.title) LIKE ").append(term).append(" ESCAPE '\\' THEN 2 ELSE 0 END")
+                    .append(" + CASE WHEN LOWER(t.description) LIKE ").append(term)
+                    .append(" ESCAPE '\\' THEN 1 ELSE 0 END");
+            where.append(" AND (LOWER(t.title) LIKE ").append(term).append(" ESCAPE '\\'")
+                    .append(" OR LOWER(t.description) LIKE ").append(term).append(" ESCAPE '\\')");
+        }
+        return "SELECT t.id, t.title, t.description, t.done, t.user_id, CAST((" + rank + ") / "
+                + (3.0 * count) + " AS REAL) AS rank FROM tasks t WHERE " + where + "\n";
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static boolean isPostgres(DataSource dataSource) {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return "PostgreSQL".equalsIgnoreCase(product);
+        } catch (MetaDataAccessException e) {
+            log.warn("Base de données non identifiée, recherche plein texte en repli LIKE", e);
+            return false;
+        }
+    }
+}
@@ -1,14 +1,43 @@
 package com.example.task_manager.repository;
 
 import com.example.task_manager.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByEmail (String email);
 
+    // Doublons insensibles à la casse : s'appuie sur l'index idx_users_lower_email
+    @Query("select count(u) > 0 from User u where lower(u.email) = lower(:email)")
+    boolean existsByEmailIgnoreCase(@Param("email") String email);
+
+    @Query("select u.tokenVersion from User u where u.id = :id and u.enabled = true")
+    Optional<Integer> findActiveTokenVersionById(@Param("id") Long id);
+
+    // Version seule, pour répondre 304 sans charger l'utilisateur
+    @Query("select u.version from User u where u.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // Construction du filtre d'existence des emails : parcours par blocs, sans charger la table en mémoire
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select u.email from User u")
+    Stream<String> streamAllEmails();
+
+    // Pagination par curseur : aucune requête COUNT
+    Window<User> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
 }
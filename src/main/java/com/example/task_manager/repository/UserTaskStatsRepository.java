@@ -0,0 +1,65 @@
+package com.example.task_manager.repository;
+
+import com.example.task_manager.dto.task.TaskListVersionDto;
+import com.example.task_manager.entity.UserTaskStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface UserTaskStatsRepository extends JpaRepository<UserTaskStats, Long> {
+
+    // Mise à jour atomique en base : pas de lecture préalable, pas de perte sous concurrence.
+    // Toute écriture compte comme une modification (ETag des listes), même avec des deltas nuls.
+    @Modifying
+    @Query("""
+            update UserTaskStats s
+            set s.total = s.total + :total, s.done = s.done + :done, s.changes = s.changes + 1
+            where s.userId = :userId
+            """)
+    int increment(@Param("userId") Long userId, @Param("total") long total, @Param("done") long done);
+
+    @Query("""
+            select new com.example.task_manager.dto.task.TaskListVersionDto(s.total, s.changes, u.version)
+            from UserTaskStats s, User u
+            where u.id = s.userId and s.userId = :userId
+            """)
+    Optional<TaskListVersionDto> findListVersionByUserId(@Param("userId") Long userId);
+
+    // Répercute l'inversion du statut d'une tâche (déjà appliquée) sur les compteurs de son propriétaire
+    @Modifying
+    @Query("""
+            update UserTaskStats s
+            set s.done = s.done + (select case when t.done = true then 1 else -1 end from Task t where t.id = :taskId),
+                s.changes = s.changes + 1
+            where s.userId = (select t.user.id from Task t where t.id = :taskId)
+            """)
+    int applyDoneToggle(@Param("taskId") Long taskId);
+
+    @Query("select coalesce(sum(s.total), 0) from UserTaskStats s")
+    long sumTotal();
+
+    @Modifying
+    @Query("""
+            insert into UserTaskStats (userId, total, done, changes)
+            select u.id, 0, 0, 0 from User u
+            where not exists (select 1 from UserTaskStats s where s.userId = u.id)
+            """)
+    int insertMissing();
+
+    // Réaligne les compteurs qui ont dérivé par rapport à la table tasks ; retourne le nombre de lignes corrigées
+    @Modifying
+    @Query("""
+            update UserTaskStats s
+            set s.total = (select count(t) from Task t where t.user.id = s.userId),
+                s.done = (select count(t) from Task t where t.user.id = s.userId and t.done = true),
+                s.changes = s.changes + 1
+            where s.total <> (select count(t) from Task t where t.user.id = s.userId)
+               or s.done <> (select count(t) from Task t where t.user.id = s.userId and t.done = true)
+            """)
+    int reconcile();
+}
@@ -0,0 +1,40 @@
+package com.example.task_manager.security;
+
+import com.example.task_manager.enumeration.Role;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Principal léger construit directement depuis les claims d'un token vérifié, sans accès à la base.
+ * Expose {@code id} pour les expressions {@code authentication.principal.id} des {@code @PreAuthorize}.
+ *
+ * @param id    identifiant de l'utilisateur
+ * @param email email de l'utilisateur (subject du token)
+ * @param role  rôle de l'utilisateur au moment de l'émission du token
+ */
+public record AuthenticatedUser(Long id, String email, Role role) implements UserDetails {
+
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+}
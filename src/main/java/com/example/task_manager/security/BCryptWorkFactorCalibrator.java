@@ -0,0 +1,68 @@
+package com.example.task_manager.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Choisit le coût BCrypt le plus élevé dont le temps de hachage reste sous une cible donnée
+ * sur la machine courante. Le temps BCrypt double à chaque incrément de coût : on mesure un coût
+ * de référence peu coûteux, on extrapole, puis on mesure chaque coût essayé en redescendant.
+ * Le résultat ne vaut que pour cette machine : en cluster, fixer {@code password-hashing.bcrypt-strength}
+ * pour toutes les instances et se servir de la calibration comme d'une indication.
+ */
+@Slf4j
+public final class BCryptWorkFactorCalibrator {
+
+    static final int MIN_STRENGTH = 10;
+    static final int MAX_STRENGTH = 16;
+
+    private static final int REFERENCE_STRENGTH = 6;
+    private static final int SAMPLES = 3;
+    private static final String SAMPLE_PASSWORD = "calibration-password";
+
+    private BCryptWorkFactorCalibrator() {
+    }
+
+    public static int calibrate(Duration target) {
+        return calibrate(target, BCryptWorkFactorCalibrator::measure);
+    }
+
+    static int calibrate(Duration target, IntToLongFunction measure) {
+        long referenceNanos = measure.applyAsLong(REFERENCE_STRENGTH);
+        double doublings = Math.log((double) target.toNanos() / referenceNanos) / Math.log(2);
+        int strength = clamp(REFERENCE_STRENGTH + (int) Math.floor(doublings));
+
+        // L'extrapolation peut surestimer : on redescend tant que la cible est dépassée, en mesurant chaque coût
+        long measured = measure.applyAsLong(strength);
+        while (measured > target.toNanos() && strength > MIN_STRENGTH) {
+            strength--;
+            measured = measure.applyAsLong(strength);
+        }
+
+        log.info("Coût BCrypt calibré à {} (~{} ms par hachage, cible {} ms)",
+                strength, Duration.ofNanos(measured).toMillis(), target.toMillis());
+        log.warn("Coût BCrypt propre à cette instance : fixer password-hashing.bcrypt-strength={} "
+                + "sur toutes les instances d'un cluster", strength);
+        return strength;
+    }
+
+    private static long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        encoder.encode(SAMPLE_PASSWORD); // échauffement
+        long best = Long.MAX_VALUE;
+        int samples = strength <= REFERENCE_STRENGTH ? SAMPLES : 1;
+        for (int i = 0; i < samples; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return Math.max(best, 1);
+    }
+
+    private static int clamp(int strength) {
+        return Math.max(MIN_STRENGTH, Math.min(MAX_STRENGTH, strength));
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.task_manager.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Accès à l'utilisateur authentifié pour les contrôles qui portent sur plusieurs ressources à la fois
+ * (traitements par lot), et pour les règles d'accès compilées de {@code security.policy}.
+ */
+public final class CurrentUser {
+
+    private static final String ROLE_ADMIN = "ROLE_ADMIN";
+
+    private CurrentUser() {
+    }
+
+    // Id du principal (token ou login), null si l'utilisateur n'est pas authentifié par l'application
+    public static Long id() {
+        return id(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    public static Long id(Authentication auth) {
+        if (auth == null) {
+            return null;
+        }
+        if (auth.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.id();
+        }
+        if (auth.getPrincipal() instanceof UserDetailsImpl user) {
+            return user.getId();
+        }
+        return null;
+    }
+
+    public static boolean isAdmin() {
+        return isAdmin(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    public static boolean isAdmin(Authentication auth) {
+        return auth != null && auth.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .anyMatch(ROLE_ADMIN::equals);
+    }
+}
@@ -1,13 +1,15 @@
 package com.example.task_manager.security;
 
+import com.example.task_manager.security.service.CustomUserDetailsService;
+import com.example.task_manager.security.service.TokenVersionService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -19,11 +21,20 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final UserDetailsService userDetailsService;
-
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, UserDetailsService userDetailsService) {
+    private final CustomUserDetailsService userDetailsService;
+    private final TokenVersionService tokenVersionService;
+    private final boolean claimsAuthEnabled;
+
+    public JwtAuthenticationFilter(
+            JwtUtil jwtUtil,
+            CustomUserDetailsService userDetailsService,
+            TokenVersionService tokenVersionService,
+            @Value("${jwt.claims-auth.enabled:true}") boolean claimsAuthEnabled
+    ) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.tokenVersionService = tokenVersionService;
+        this.claimsAuthEnabled = claimsAuthEnabled;
     }
 
     @Override
@@ -41,40 +52,54 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         final String jwt = authHeader.substring(7);
-        final String username;
+        final VerifiedToken token;
 
         try {
-            username = jwtUtil.extractUsername(jwt);
+            // Signature et expiration vérifiées en un seul parsing (ou servies depuis le cache)
+            token = jwtUtil.verify(jwt);
         } catch (Exception e) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        if (username != null &&
+        if (token.subject() != null &&
                 SecurityContextHolder.getContext().getAuthentication() == null) {
 
-            UserDetails userDetails =
-                    userDetailsService.loadUserByUsername(username);
+            UserDetails userDetails = resolveUser(token);
+            if (userDetails == null) {
+                filterChain.doFilter(request, response);
+                return;
+            }
 
-            if (jwtUtil.validateToken(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(
-                                userDetails,
-                                null,
-                                userDetails.getAuthorities()
-                        );
+            UsernamePasswordAuthenticationToken authToken =
+                    new UsernamePasswordAuthenticationToken(
+                            userDetails,
+                            null,
+                            userDetails.getAuthorities()
+                    );
 
-                authToken.setDetails(
-                        new WebAuthenticationDetailsSource()
-                                .buildDetails(request)
-                );
+            authToken.setDetails(
+                    new WebAuthenticationDetailsSource()
+                            .buildDetails(request)
+            );
 
-                SecurityContextHolder.getContext()
-                        .setAuthentication(authToken);
-            }
+            SecurityContextHolder.getContext()
+                    .setAuthentication(authToken);
         }
 
         filterChain.doFilter(request, response);
     }
-}
 
+    // Principal construit depuis les claims si possible, sinon depuis le cache des principaux
+    private UserDetails resolveUser(VerifiedToken token) {
+        if (token.hasIdentityClaims()) {
+            if (!tokenVersionService.isCurrent(token.userId(), token.tokenVersion())) {
+                return null; // token révoqué
+            }
+            if (claimsAuthEnabled) {
+                return new AuthenticatedUser(token.userId(), token.subject(), token.role());
+            }
+        }
+        return userDetailsService.loadAuthenticatedUser(token.subject());
+    }
+}
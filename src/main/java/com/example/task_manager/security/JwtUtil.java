@@ -1,56 +1,80 @@
 package com.example.task_manager.security;
 
+import com.example.task_manager.entity.User;
+import com.example.task_manager.enumeration.Role;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.Map;
-import java.util.function.Function;
 
 @Component
 public class JwtUtil {
 
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_ROLE = "role";
+    static final String CLAIM_TOKEN_VERSION = "tv";
+
     @Value("${jwt.secret:404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970}")
     private String secretKey;
 
     @Value("${jwt.expiration:86400000}") // 24 heures par défaut
     private long jwtExpiration;
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject); // Contient l'EMAIL
-    }
-
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    @Value("${jwt.cache.max-size:10000}") // 0 désactive le cache
+    private int cacheMaxSize;
+
+    private SecretKey signKey;
+    private JwtParser jwtParser;
+    private VerifiedTokenCache verifiedTokens;
+
+    // La clé et le parser sont immuables et thread-safe : on les construit une seule fois
+    @PostConstruct
+    void init() {
+        signKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        jwtParser = Jwts.parser()
+                .verifyWith(signKey)
+                .build();
+        verifiedTokens = new VerifiedTokenCache(cacheMaxSize);
     }
 
-    public <T> T extractClaim(String token, Function<Claims, T> resolver) {
-        return resolver.apply(extractAllClaims(token));
+    /**
+     * Vérifie la signature et l'expiration du token en un seul parsing.
+     * Les tokens déjà vérifiés sont servis depuis le cache jusqu'à leur expiration.
+     *
+     * @param token le token JWT brut (sans le préfixe "Bearer ")
+     * @return les informations vérifiées du token
+     * @throws io.jsonwebtoken.JwtException si le token est invalide ou expiré
+     */
+    public VerifiedToken verify(String token) {
+        VerifiedToken cached = verifiedTokens.get(token);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+        String role = claims.get(CLAIM_ROLE, String.class);
+        VerifiedToken verified = new VerifiedToken(
+                claims.getSubject(),
+                claims.get(CLAIM_USER_ID, Long.class),
+                role != null ? Role.valueOf(role) : null,
+                claims.get(CLAIM_TOKEN_VERSION, Integer.class),
+                claims.getIssuedAt().toInstant(),
+                claims.getExpiration().toInstant()
+        );
+        verifiedTokens.put(token, verified);
+        return verified;
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    // Valider le token
-    public Boolean validateToken(String token, UserDetails userDetails) {
-        final String email = extractUsername(token);
-        // userDetails.getUsername() retourne l'email
-        return (email.equals(userDetails.getUsername()) && !isTokenExpired(token));
+    public String extractUsername(String token) {
+        return verify(token).subject(); // Contient l'EMAIL
     }
 
     // Générer un token avec l'EMAIL
@@ -58,6 +82,15 @@ public class JwtUtil {
         return generateToken(Map.of(), email);
     }
 
+    // Générer un token auto-suffisant : id, rôle et version des tokens permettent d'authentifier sans la base
+    public String generateToken(User user) {
+        return generateToken(Map.of(
+                CLAIM_USER_ID, user.getId(),
+                CLAIM_ROLE, user.getRole().name(),
+                CLAIM_TOKEN_VERSION, user.getTokenVersion()
+        ), user.getEmail());
+    }
+
 
     // Créer le token (subject = email)
     private String generateToken(Map<String, Object> claims, String email) {
@@ -66,13 +99,8 @@ public class JwtUtil {
                 .subject(email)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSignKey())
+                .signWith(signKey)
                 .compact();
     }
 
-    private SecretKey getSignKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-
 }
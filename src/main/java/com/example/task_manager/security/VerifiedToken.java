@@ -0,0 +1,28 @@
+package com.example.task_manager.security;
+
+import com.example.task_manager.enumeration.Role;
+
+import java.time.Instant;
+
+/**
+ * Résultat immuable d'un token JWT dont la signature et l'expiration ont été vérifiées.
+ *
+ * @param subject      email de l'utilisateur (subject du token)
+ * @param userId       identifiant de l'utilisateur, {@code null} pour les tokens sans claims d'identité
+ * @param role         rôle de l'utilisateur, {@code null} pour les tokens sans claims d'identité
+ * @param tokenVersion version des tokens de l'utilisateur à l'émission, {@code null} si absente
+ * @param issuedAt     date d'émission du token
+ * @param expiration   date d'expiration du token
+ */
+public record VerifiedToken(
+        String subject, Long userId, Role role, Integer tokenVersion, Instant issuedAt, Instant expiration
+) {
+
+    public boolean isExpired(Instant now) {
+        return !expiration.isAfter(now);
+    }
+
+    public boolean hasIdentityClaims() {
+        return userId != null && role != null && tokenVersion != null;
+    }
+}
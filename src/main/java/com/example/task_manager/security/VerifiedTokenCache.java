@@ -0,0 +1,95 @@
+package com.example.task_manager.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ * Cache borné des tokens déjà vérifiés, indexé par l'empreinte SHA-256 du token.
+ * Cache Caffeine ({@code maximumSize}, éviction amortie) dont chaque entrée expire à la date d'expiration
+ * du token qu'elle représente : une entrée n'est jamais servie après l'expiration du token.
+ */
+class VerifiedTokenCache {
+
+    private final Cache<String, VerifiedToken> entries;
+
+    VerifiedTokenCache(long maxSize) {
+        this(maxSize, Clock.systemUTC(), Ticker.systemTicker());
+    }
+
+    VerifiedTokenCache(long maxSize, Clock clock, Ticker ticker) {
+        this.entries = maxSize <= 0 ? null : Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry(clock))
+                .ticker(ticker)
+                .build();
+    }
+
+    VerifiedToken get(String token) {
+        return entries == null ? null : entries.getIfPresent(digest(token));
+    }
+
+    void put(String token, VerifiedToken verified) {
+        if (entries != null) {
+            entries.put(digest(token), verified);
+        }
+    }
+
+    long size() {
+        if (entries == null) {
+            return 0;
+        }
+        entries.cleanUp();
+        return entries.estimatedSize();
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
+    // Durée de vie restante du token à l'écriture ; une lecture ne la prolonge pas
+    private record TokenExpiry(Clock clock) implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken verified, long currentTime) {
+            return remainingNanos(verified);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken verified, long currentTime, long currentDuration) {
+            return remainingNanos(verified);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken verified, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        private long remainingNanos(VerifiedToken verified) {
+            Duration remaining = Duration.between(Instant.now(clock), verified.expiration());
+            return remaining.isNegative() ? 0 : saturatedNanos(remaining);
+        }
+
+        private static long saturatedNanos(Duration duration) {
+            try {
+                return duration.toNanos();
+            } catch (ArithmeticException e) {
+                return Long.MAX_VALUE;
+            }
+        }
+    }
+}
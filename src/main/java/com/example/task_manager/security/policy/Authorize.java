@@ -0,0 +1,25 @@
+package com.example.task_manager.security.policy;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Règle d'accès typée d'une méthode de service, compilée une seule fois en prédicat Java
+ * (voir {@link PolicyAuthorizationManager}) au lieu d'une expression SpEL évaluée à chaque appel.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Authorize {
+
+    Policy value();
+
+    /**
+     * Paramètre désignant le propriétaire, pour {@link Policy#OWNER_OR_ADMIN} : un id d'utilisateur
+     * ({@code Long}), un email comparé au nom de l'authentification ({@code String}) ou une {@link OwnedResource}.
+     */
+    String owner() default "";
+}
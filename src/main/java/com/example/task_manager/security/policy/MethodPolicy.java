@@ -0,0 +1,12 @@
+package com.example.task_manager.security.policy;
+
+import org.springframework.security.core.Authentication;
+
+/**
+ * Règle d'accès compilée pour une méthode : un simple prédicat sur l'authentification et les arguments.
+ */
+@FunctionalInterface
+public interface MethodPolicy {
+
+    boolean allows(Authentication authentication, Object[] arguments);
+}
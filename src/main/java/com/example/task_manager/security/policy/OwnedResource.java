@@ -0,0 +1,10 @@
+package com.example.task_manager.security.policy;
+
+/**
+ * Argument de méthode rattaché à un utilisateur : son id est comparé au principal par {@link Policy#OWNER_OR_ADMIN}.
+ */
+public interface OwnedResource {
+
+    // Null si la ressource ne désigne aucun utilisateur : seul un administrateur y a alors accès
+    Long ownerId();
+}
@@ -0,0 +1,94 @@
+package com.example.task_manager.security.policy;
+
+import com.example.task_manager.security.CurrentUser;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+/**
+ * Règles d'accès des services. Chacune reprend la sémantique de l'expression SpEL qu'elle remplace,
+ * à ceci près qu'un principal sans id applicatif est refusé au lieu de provoquer une erreur d'évaluation.
+ */
+public enum Policy {
+
+    // isAuthenticated()
+    AUTHENTICATED {
+        @Override
+        MethodPolicy compile(Method method, String owner) {
+            return (authentication, arguments) -> TRUST_RESOLVER.isAuthenticated(authentication);
+        }
+    },
+
+    // hasRole('ADMIN')
+    ADMIN {
+        @Override
+        MethodPolicy compile(Method method, String owner) {
+            return (authentication, arguments) -> CurrentUser.isAdmin(authentication);
+        }
+    },
+
+    // hasRole('ADMIN') or hasRole('USER')
+    USER_OR_ADMIN {
+        @Override
+        MethodPolicy compile(Method method, String owner) {
+            return (authentication, arguments) -> authentication != null && authentication.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .anyMatch(authority -> authority.equals(ROLE_ADMIN) || authority.equals(ROLE_USER));
+        }
+    },
+
+    // hasRole('ADMIN') or #owner == authentication.principal.id (ou authentication.name pour un email)
+    OWNER_OR_ADMIN {
+        @Override
+        MethodPolicy compile(Method method, String owner) {
+            int index = parameterIndex(method, owner);
+            Class<?> type = method.getParameterTypes()[index];
+            if (type == Long.class || type == long.class) {
+                return (authentication, arguments) -> CurrentUser.isAdmin(authentication)
+                        || isPrincipal(authentication, (Long) arguments[index]);
+            }
+            if (type == String.class) {
+                return (authentication, arguments) -> CurrentUser.isAdmin(authentication)
+                        || (authentication != null && authentication.getName().equals(arguments[index]));
+            }
+            if (OwnedResource.class.isAssignableFrom(type)) {
+                return (authentication, arguments) -> CurrentUser.isAdmin(authentication)
+                        || (arguments[index] instanceof OwnedResource resource
+                        && isPrincipal(authentication, resource.ownerId()));
+            }
+            throw new IllegalStateException("Paramètre propriétaire '" + owner + "' de type non pris en charge ("
+                    + type.getSimpleName() + ") sur " + method);
+        }
+    };
+
+    private static final String ROLE_ADMIN = "ROLE_ADMIN";
+    private static final String ROLE_USER = "ROLE_USER";
+    private static final AuthenticationTrustResolver TRUST_RESOLVER = new AuthenticationTrustResolverImpl();
+    private static final ParameterNameDiscoverer PARAMETER_NAMES = new DefaultParameterNameDiscoverer();
+
+    /**
+     * Compile la règle pour une méthode : noms et types de paramètres sont résolus ici, une seule fois.
+     *
+     * @throws IllegalStateException si le paramètre propriétaire est absent ou d'un type non pris en charge
+     */
+    abstract MethodPolicy compile(Method method, String owner);
+
+    private static boolean isPrincipal(Authentication authentication, Long ownerId) {
+        return ownerId != null && ownerId.equals(CurrentUser.id(authentication));
+    }
+
+    private static int parameterIndex(Method method, String owner) {
+        String[] names = PARAMETER_NAMES.getParameterNames(method);
+        int index = names == null ? -1 : Arrays.asList(names).indexOf(owner);
+        if (index < 0) {
+            throw new IllegalStateException("Paramètre propriétaire '" + owner + "' introuvable sur " + method);
+        }
+        return index;
+    }
+}
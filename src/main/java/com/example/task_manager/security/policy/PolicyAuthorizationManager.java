@@ -0,0 +1,74 @@
+package com.example.task_manager.security.policy;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.core.Authentication;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Applique les règles {@link Authorize}. Chaque règle est compilée lorsque le proxy du service est créé,
+ * au démarrage : le pointcut compile les méthodes annotées qu'il sélectionne, et une règle invalide
+ * (paramètre propriétaire introuvable, type non pris en charge) fait échouer le démarrage.
+ * À l'appel, il ne reste qu'une lecture de map et un prédicat Java.
+ */
+public class PolicyAuthorizationManager implements AuthorizationManager<MethodInvocation> {
+
+    private final Map<Method, MethodPolicy> policies = new ConcurrentHashMap<>();
+
+    private final StaticMethodMatcherPointcut pointcut = new StaticMethodMatcherPointcut() {
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            return policyFor(AopUtils.getMostSpecificMethod(method, targetClass)) != null;
+        }
+    };
+
+    public PolicyAuthorizationManager() {
+        pointcut.setClassFilter(type -> AnnotationUtils.isCandidateClass(type, Authorize.class));
+    }
+
+    public Pointcut getPointcut() {
+        return pointcut;
+    }
+
+    @Override
+    public AuthorizationResult authorize(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        Method method = invocation.getThis() == null
+                ? invocation.getMethod()
+                : AopUtils.getMostSpecificMethod(invocation.getMethod(), AopUtils.getTargetClass(invocation.getThis()));
+        MethodPolicy policy = policyFor(method);
+        // Méthode sans règle interceptée : refusée plutôt qu'autorisée par défaut
+        return new AuthorizationDecision(
+                policy != null && policy.allows(authentication.get(), invocation.getArguments()));
+    }
+
+    // Encore abstraite dans AuthorizationManager, remplacée par authorize : jamais appelée par Spring Security
+    @Override
+    @Deprecated
+    public AuthorizationDecision check(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        return (AuthorizationDecision) authorize(authentication, invocation);
+    }
+
+    // Règle compilée de la méthode, null si elle n'est pas annotée
+    private MethodPolicy policyFor(Method method) {
+        MethodPolicy policy = policies.get(method);
+        if (policy != null) {
+            return policy;
+        }
+        Authorize authorize = AnnotatedElementUtils.findMergedAnnotation(method, Authorize.class);
+        if (authorize == null) {
+            return null;
+        }
+        return policies.computeIfAbsent(method, key -> authorize.value().compile(key, authorize.owner()));
+    }
+}
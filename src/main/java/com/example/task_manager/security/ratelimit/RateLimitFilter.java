@@ -0,0 +1,165 @@
+package com.example.task_manager.security.ratelimit;
+
+import com.example.task_manager.dto.ApiResponse;
+import com.example.task_manager.security.AuthenticatedUser;
+import com.example.task_manager.security.UserDetailsImpl;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applique les règles de {@link RateLimitProperties} : 429 avec Retry-After dès qu'un seau est vide.
+ * Placé après le filtre JWT pour que les règles par utilisateur connaissent l'utilisateur authentifié.
+ */
+@Component
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final int MAX_INSPECTED_BODY = 8 * 1024;
+
+    private final RateLimitProperties properties;
+    private final TokenBucketRateLimiter limiter;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public RateLimitFilter(
+            RateLimitProperties properties,
+            ObjectMapper objectMapper,
+            ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        this.properties = properties;
+        this.limiter = new TokenBucketRateLimiter(properties.maxKeys());
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !properties.enabled() || properties.rules().isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        String path = request.getServletPath();
+        List<RateLimitProperties.Rule> rules = properties.rules();
+        HttpServletRequest effectiveRequest = request;
+        String email = null;
+
+        for (int i = 0; i < rules.size(); i++) {
+            RateLimitProperties.Rule rule = rules.get(i);
+            if (!matches(rule, request.getMethod(), path)) {
+                continue;
+            }
+
+            String key = switch (rule.key()) {
+                case IP -> request.getRemoteAddr();
+                case USER -> authenticatedUserKey(request);
+                case EMAIL -> {
+                    if (!(effectiveRequest instanceof CachedBodyHttpServletRequest)) {
+                        effectiveRequest = cacheBody(request);
+                        email = extractEmail(effectiveRequest);
+                    }
+                    yield email;
+                }
+            };
+            if (key == null) {
+                continue;
+            }
+
+            long waitNanos = limiter.tryAcquire(i + ":" + key, rule.capacity(), rule.refillPerSecond());
+            if (waitNanos > 0) {
+                reject(response, rule, waitNanos);
+                return;
+            }
+        }
+
+        filterChain.doFilter(effectiveRequest, response);
+    }
+
+    private boolean matches(RateLimitProperties.Rule rule, String method, String path) {
+        return (rule.method() == null || rule.method().isBlank() || rule.method().equalsIgnoreCase(method))
+                && pathMatcher.match(rule.pattern(), path);
+    }
+
+    // Utilisateur authentifié par son id ; à défaut (requête anonyme), l'adresse IP
+    private static String authenticatedUserKey(HttpServletRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null) {
+            if (auth.getPrincipal() instanceof AuthenticatedUser user) {
+                return "user:" + user.id();
+            }
+            if (auth.getPrincipal() instanceof UserDetailsImpl user) {
+                return "user:" + user.getId();
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static HttpServletRequest cacheBody(HttpServletRequest request) throws IOException {
+        int length = request.getContentLength();
+        if (length < 0 || length > MAX_INSPECTED_BODY) {
+            return request;
+        }
+        return new CachedBodyHttpServletRequest(request, request.getInputStream().readAllBytes());
+    }
+
+    private String extractEmail(HttpServletRequest request) {
+        if (!(request instanceof CachedBodyHttpServletRequest cached) || cached.getBody().length == 0) {
+            return null;
+        }
+        try {
+            JsonNode email = objectMapper.readTree(cached.getBody()).path("email");
+            return email.isTextual() ? email.asText().trim().toLowerCase(Locale.ROOT) : null;
+        } catch (IOException e) {
+            return null; // corps invalide : la validation du contrôleur répondra
+        }
+    }
+
+    private void reject(HttpServletResponse response, RateLimitProperties.Rule rule, long waitNanos)
+            throws IOException {
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        log.warn("Limite de débit atteinte ({} par {}), nouvel essai dans {}s", rule.pattern(), rule.key(), retryAfter);
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            registry.counter("rate.limit.rejected", "pattern", rule.pattern(), "key", rule.key().name())
+                    .increment();
+        }
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getWriter(), new ApiResponse<>(
+                false,
+                "Trop de requêtes, veuillez réessayer dans " + retryAfter + " seconde(s)",
+                null,
+                HttpStatus.TOO_MANY_REQUESTS.value()
+        ));
+    }
+}
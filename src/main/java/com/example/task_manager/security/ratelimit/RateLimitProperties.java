@@ -0,0 +1,38 @@
+package com.example.task_manager.security.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Règles de limitation de débit, évaluées pour chaque requête dont le chemin correspond au motif.
+ * Toutes les règles correspondantes s'appliquent : la requête est refusée dès qu'un seau est vide.
+ *
+ * @param enabled active le filtre de limitation
+ * @param maxKeys nombre maximal de seaux conservés (éviction des moins utiles au-delà)
+ * @param rules   règles par motif de route
+ */
+@ConfigurationProperties(prefix = "rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1048576") long maxKeys,
+        @DefaultValue List<Rule> rules
+) {
+
+    /**
+     * @param pattern         motif de chemin (syntaxe Ant, ex : /api/**)
+     * @param method          méthode HTTP concernée, toutes si vide
+     * @param key             clé de limitation
+     * @param capacity        rafale maximale autorisée
+     * @param refillPerSecond débit soutenu autorisé (requêtes par seconde)
+     */
+    public record Rule(String pattern, String method, KeyType key, long capacity, double refillPerSecond) {
+    }
+
+    public enum KeyType {
+        IP,
+        EMAIL,
+        USER
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.task_manager.security.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Limiteur de débit par clé, à seaux de jetons (token bucket), sans verrou.
+ * Chaque seau est mis à jour par CAS ; les seaux sont conservés dans un cache Caffeine borné
+ * ({@code maximumSize}, éviction amortie). Un seau inutilisé pendant le temps de remplissage complet
+ * est redevenu plein, donc indiscernable d'un seau absent : il expire, ce qui limite la mémoire
+ * aux seuls clients actifs.
+ */
+public class TokenBucketRateLimiter {
+
+    private final Cache<String, Bucket> buckets;
+    private final Ticker ticker;
+
+    public TokenBucketRateLimiter(long maxKeys) {
+        this(maxKeys, Ticker.systemTicker());
+    }
+
+    TokenBucketRateLimiter(long maxKeys, Ticker ticker) {
+        this.ticker = ticker;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfter(new RefillExpiry())
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Tente de consommer un jeton pour la clé donnée.
+     *
+     * @param key             clé du client (ip, email, id utilisateur...)
+     * @param capacity        nombre maximal de jetons du seau (rafale autorisée)
+     * @param refillPerSecond jetons ajoutés par seconde
+     * @return 0 si la requête est autorisée, sinon le délai en nanosecondes avant le prochain jeton
+     */
+    public long tryAcquire(String key, long capacity, double refillPerSecond) {
+        long now = ticker.read();
+        Bucket bucket = buckets.get(key, k -> new Bucket(capacity, refillPerSecond / 1_000_000_000d, now));
+        return bucket.tryAcquire(now);
+    }
+
+    public long size() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+
+    // Expiration après accès, à la durée de remplissage complet du seau
+    private static final class RefillExpiry implements Expiry<String, Bucket> {
+
+        @Override
+        public long expireAfterCreate(String key, Bucket bucket, long currentTime) {
+            return bucket.refillNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Bucket bucket, long currentTime, long currentDuration) {
+            return bucket.refillNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String key, Bucket bucket, long currentTime, long currentDuration) {
+            return bucket.refillNanos();
+        }
+    }
+
+    private static final class Bucket {
+
+        private final long capacity;
+        private final double refillPerNano;
+        private final AtomicReference<State> state;
+
+        private Bucket(long capacity, double refillPerNano, long now) {
+            this.capacity = capacity;
+            this.refillPerNano = refillPerNano;
+            this.state = new AtomicReference<>(new State(capacity, now));
+        }
+
+        private long tryAcquire(long now) {
+            while (true) {
+                State current = state.get();
+                double tokens = current.tokensAt(now, capacity, refillPerNano);
+                if (tokens < 1) {
+                    return (long) Math.ceil((1 - tokens) / refillPerNano);
+                }
+                if (state.compareAndSet(current, new State(tokens - 1, Math.max(now, current.timestamp)))) {
+                    return 0;
+                }
+            }
+        }
+
+        private long refillNanos() {
+            return (long) Math.min(Long.MAX_VALUE, Math.ceil(capacity / refillPerNano));
+        }
+    }
+
+    private record State(double tokens, long timestamp) {
+
+        private double tokensAt(long now, long capacity, double refillPerNano) {
+            long elapsed = Math.max(0, now - timestamp);
+            return Math.min(capacity, tokens + elapsed * refillPerNano);
+        }
+    }
+}
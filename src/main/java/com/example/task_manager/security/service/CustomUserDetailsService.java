@@ -2,25 +2,121 @@ package com.example.task_manager.security.service;
 
 import com.example.task_manager.entity.User;
 import com.example.task_manager.repository.UserRepository;
+import com.example.task_manager.security.AuthenticatedUser;
 import com.example.task_manager.security.UserDetailsImpl;
-import lombok.RequiredArgsConstructor;
+import com.example.task_manager.transaction.TransactionCallbacks;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 @Service
-@RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+@Slf4j
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
+    // Principaux immuables, sans hash de mot de passe, indexés par email
+    private final Cache<String, AuthenticatedUser> principals;
+
+    // Email de chaque principal en cache, pour l'invalidation par id ; maintenu avec le cache
+    private final Map<Long, String> emailsById = new ConcurrentHashMap<>();
+
+    public CustomUserDetailsService(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${user-details.cache.max-size:10000}") long maxSize,
+            @Value("${user-details.cache.ttl:10m}") Duration ttl
+    ) {
+        this.userRepository = userRepository;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                // Synchrone, dans l'opération qui évince l'entrée : l'index ne garde que les principaux en cache
+                .evictionListener((String email, AuthenticatedUser principal, RemovalCause cause) -> {
+                    if (principal != null) {
+                        emailsById.remove(principal.id(), email);
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, "userDetails");
+    }
+
+    // Utilisé par l'AuthenticationManager au login : jamais mis en cache car il porte le hash du mot de passe.
+    // Lu sur la base primaire : un compte tout juste inscrit doit pouvoir se connecter malgré le retard des réplicas
     @Override
-    @Transactional(readOnly = true)
+    @Transactional
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("Utilisateur non trouvé : " + email));
         return new UserDetailsImpl(user);
     }
-}
\ No newline at end of file
+
+    // Appelé par l'AuthenticationManager après un login réussi dont le hash doit être réencodé
+    // (coût BCrypt différent du coût cible ou hash sans préfixe {id}) : le mot de passe est inchangé,
+    // la version des tokens n'est donc pas incrémentée.
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newEncodedPassword) {
+        String email = userDetails.getUsername();
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("Utilisateur non trouvé : " + email));
+        user.setPassword(newEncodedPassword);
+        User userSaved = userRepository.save(user);
+        log.info("Hash du mot de passe mis à niveau pour l'utilisateur ID: {}", userSaved.getId());
+        return new UserDetailsImpl(userSaved);
+    }
+
+    /**
+     * Charge le principal d'un utilisateur authentifié par token, depuis le cache si possible.
+     *
+     * @param email email de l'utilisateur (subject du token)
+     * @return le principal immuable de l'utilisateur
+     * @throws UsernameNotFoundException si aucun utilisateur ne possède cet email
+     */
+    public AuthenticatedUser loadAuthenticatedUser(String email) throws UsernameNotFoundException {
+        return principals.get(email, key -> userRepository.findByEmail(key)
+                .map(user -> {
+                    emailsById.put(user.getId(), key);
+                    return new AuthenticatedUser(user.getId(), user.getEmail(), user.getRole());
+                })
+                .orElseThrow(() -> new UsernameNotFoundException("Utilisateur non trouvé : " + key)));
+    }
+
+    /**
+     * Retire le principal du cache, après le commit de la transaction en cours s'il y en a une :
+     * un chargement concurrent avant ce commit relirait sinon l'ancien état et le remettrait en cache.
+     */
+    public void evict(String email) {
+        TransactionCallbacks.afterCommit(() -> {
+            AuthenticatedUser principal = principals.asMap().remove(email);
+            if (principal != null) {
+                emailsById.remove(principal.id(), email);
+            }
+        });
+    }
+
+    public void evict(Long userId) {
+        TransactionCallbacks.afterCommit(() -> {
+            String email = emailsById.remove(userId);
+            if (email != null) {
+                principals.invalidate(email);
+                log.info("Principal de l'utilisateur ID: {} retiré du cache", userId);
+            }
+        });
+    }
+}
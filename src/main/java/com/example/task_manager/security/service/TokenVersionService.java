@@ -0,0 +1,86 @@
+package com.example.task_manager.security.service;
+
+import com.example.task_manager.entity.User;
+import com.example.task_manager.repository.UserRepository;
+import com.example.task_manager.transaction.TransactionCallbacks;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Cache local des versions de tokens par utilisateur.
+ * Un token n'est accepté que si sa version est égale à la version courante de l'utilisateur :
+ * incrémenter la version (mot de passe, rôle, désactivation) ou supprimer l'utilisateur révoque
+ * tous ses tokens existants. Chaque version est relue en base au plus tard {@code token-version.cache.ttl}
+ * après son chargement : un changement fait sur une autre instance y est donc pris en compte dans ce délai.
+ * Les changements locaux ne sont appliqués au cache qu'après le commit de la transaction qui les enregistre :
+ * une version lue en base avant ce commit ne peut donc pas écraser la nouvelle.
+ */
+@Service
+@Slf4j
+public class TokenVersionService {
+
+    private static final int REVOKED = -1;
+
+    private final UserRepository userRepository;
+    private final Cache<Long, Integer> versions;
+
+    @Autowired
+    public TokenVersionService(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${token-version.cache.max-size:100000}") long maxSize,
+            @Value("${token-version.cache.ttl:30s}") Duration ttl
+    ) {
+        this(userRepository, maxSize, ttl, Ticker.systemTicker());
+        CaffeineCacheMetrics.monitor(meterRegistry, versions, "tokenVersions");
+    }
+
+    TokenVersionService(UserRepository userRepository, long maxSize, Duration ttl, Ticker ticker) {
+        this.userRepository = userRepository;
+        // Expiration après écriture, pas après accès : un utilisateur actif doit aussi être relu
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        Integer current = versions.getIfPresent(userId);
+        if (current == null) {
+            // Lecture hors de get(key, loader) : pas de requête SQL sous le verrou du cache.
+            // putIfAbsent : une version publiée entre-temps par un commit l'emporte sur celle lue ici
+            int loaded = userRepository.findActiveTokenVersionById(userId).orElse(REVOKED);
+            Integer published = versions.asMap().putIfAbsent(userId, loaded);
+            current = published != null ? published : loaded;
+        }
+        return current != REVOKED && current == tokenVersion;
+    }
+
+    // À appeler après l'enregistrement d'un utilisateur dont la version des tokens a changé
+    public void refresh(User user) {
+        Long userId = user.getId();
+        int version = user.isEnabled() ? user.getTokenVersion() : REVOKED;
+        TransactionCallbacks.afterCommit(() -> {
+            versions.put(userId, version);
+            log.info("Version des tokens rafraîchie pour l'utilisateur ID: {}", userId);
+        });
+    }
+
+    public void revokeAll(Long userId) {
+        TransactionCallbacks.afterCommit(() -> {
+            versions.put(userId, REVOKED);
+            log.info("Tokens révoqués pour l'utilisateur ID: {}", userId);
+        });
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.task_manager.service;
 
+import com.example.task_manager.bloom.UserEmailFilter;
 import com.example.task_manager.dto.auth.ChangePasswordDto;
 import com.example.task_manager.dto.auth.LoginDto;
 import com.example.task_manager.dto.auth.LoginResponseDto;
@@ -8,12 +9,16 @@ import com.example.task_manager.dto.user.CreateUserDto;
 import com.example.task_manager.dto.user.UserResponseDto;
 import com.example.task_manager.entity.User;
 import com.example.task_manager.exception.UserAlreadyExistException;
+import com.example.task_manager.exception.UserNotFoundException;
 import com.example.task_manager.mapper.UserMapper;
 import com.example.task_manager.repository.UserRepository;
 import com.example.task_manager.security.JwtUtil;
 import com.example.task_manager.security.UserDetailsImpl;
+import com.example.task_manager.security.policy.Authorize;
+import com.example.task_manager.security.policy.Policy;
+import com.example.task_manager.security.service.CustomUserDetailsService;
+import com.example.task_manager.security.service.TokenVersionService;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.*;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -30,6 +35,9 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtUtil jwtUtil;
+    private final TokenVersionService tokenVersionService;
+    private final CustomUserDetailsService userDetailsService;
+    private final UserEmailFilter userEmailFilter;
 
     public AuthService(
             UserService userService,
@@ -37,7 +45,10 @@ public class AuthService {
             UserMapper userMapper,
             PasswordEncoder passwordEncoder,
             AuthenticationManager authenticationManager,
-            JwtUtil jwtUtil
+            JwtUtil jwtUtil,
+            TokenVersionService tokenVersionService,
+            CustomUserDetailsService userDetailsService,
+            UserEmailFilter userEmailFilter
     ) {
         this.userService = userService;
         this.userRepository = userRepository;
@@ -45,12 +56,16 @@ public class AuthService {
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
         this.jwtUtil = jwtUtil;
+        this.tokenVersionService = tokenVersionService;
+        this.userDetailsService = userDetailsService;
+        this.userEmailFilter = userEmailFilter;
     }
 
+    // Pas de transaction englobante : le hachage BCrypt ne doit pas retenir une connexion du pool,
+    // l'écriture se fait dans la transaction de UserService.save
     public void register(RegisterDto registerDto) {
         log.info("Tentative d'inscription pour l'email: {}", registerDto.getEmail());
-        User user = userRepository.findByEmail(registerDto.getEmail()).orElse(null);
-        if (user != null) {
+        if (userEmailFilter.exists(registerDto.getEmail(), userRepository::existsByEmailIgnoreCase)) {
             log.warn("Échec de l'inscription: l'utilisateur avec l'email {} existe déjà", registerDto.getEmail());
             throw new UserAlreadyExistException();
         }
@@ -62,6 +77,7 @@ public class AuthService {
 
     }
 
+    // La lecture de l'utilisateur a lieu dans la transaction de loadUserByUsername, la vérification du hash après
     public LoginResponseDto login(LoginDto loginDto) {
         log.info("Tentative de connexion pour l'email: {}", loginDto.getEmail());
         Authentication authentication = authenticationManager.authenticate(
@@ -74,7 +90,7 @@ public class AuthService {
         UserDetailsImpl userDetails =
                 (UserDetailsImpl) authentication.getPrincipal();
 
-        String jwt = jwtUtil.generateToken(userDetails.getUsername());
+        String jwt = jwtUtil.generateToken(userDetails.user());
         log.info("Connexion réussie pour l'utilisateur: {}", loginDto.getEmail());
 
         UserResponseDto userResponseDto =
@@ -83,7 +99,9 @@ public class AuthService {
         return new LoginResponseDto(userResponseDto, jwt);
     }
 
-    @PreAuthorize("isAuthenticated()")
+    // Lecture et écriture dans deux transactions courtes autour des deux hachages ;
+    // le @Version de User fait échouer l'écriture si l'utilisateur a changé entre-temps
+    @Authorize(Policy.AUTHENTICATED)
     public void changePassword(ChangePasswordDto changePasswordDto) {
 
         User user = getUser();
@@ -104,11 +122,15 @@ public class AuthService {
         }
 
         user.setPassword(passwordEncoder.encode(changePasswordDto.getNewPassword()));
+        // Les tokens émis avec l'ancien mot de passe ne sont plus acceptés
+        user.setTokenVersion(user.getTokenVersion() + 1);
         userRepository.save(user);
+        tokenVersionService.refresh(user);
+        userDetailsService.evict(user.getEmail());
         log.info("Mot de passe mis à jour avec succès pour {}", user.getEmail());
     }
 
-    private static User getUser() {
+    private User getUser() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
 
         // 2. Vérifier si l'utilisateur est authentifié
@@ -116,8 +138,8 @@ public class AuthService {
             throw new InsufficientAuthenticationException("Vous devez être connecté pour changer votre mot de passe");
         }
 
-        // 3. Récupérer les détails de l'utilisateur
-        UserDetailsImpl userDetails = (UserDetailsImpl) auth.getPrincipal();
-        return userDetails.user();
+        // 3. Recharger l'utilisateur : le principal peut provenir des seuls claims du token
+        return userRepository.findByEmail(auth.getName())
+                .orElseThrow(() -> new UserNotFoundException(auth.getName()));
     }
 }
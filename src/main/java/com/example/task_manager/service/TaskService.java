@@ -1,106 +1,600 @@
 package com.example.task_manager.service;
 
+import com.example.task_manager.dto.CursorPageResponse;
+import com.example.task_manager.bloom.TaskTitleFilter;
+import com.example.task_manager.dto.Versioned;
 import com.example.task_manager.dto.task.CreateTaskDto;
+import com.example.task_manager.dto.task.TaskBatchItemResultDto;
+import com.example.task_manager.dto.task.TaskBatchResultDto;
+import com.example.task_manager.dto.task.TaskFilterDto;
+import com.example.task_manager.dto.task.TaskListVersionDto;
+import com.example.task_manager.dto.task.TaskPatchDto;
 import com.example.task_manager.dto.task.TaskResponseDto;
+import com.example.task_manager.dto.task.TaskStatsDto;
+import com.example.task_manager.dto.task.TaskSuggestionDto;
+import com.example.task_manager.dto.task.TaskVersionDto;
+import com.example.task_manager.dto.task.UpdateTaskItemDto;
+import com.example.task_manager.dto.task.VersionedTaskResponseDto;
 import com.example.task_manager.entity.Task;
 import com.example.task_manager.entity.User;
+import com.example.task_manager.exception.DataIntegrityViolations;
+import com.example.task_manager.exception.InvalidPageRequestException;
+import com.example.task_manager.exception.PreconditionFailedException;
 import com.example.task_manager.exception.TaskAlreadyExistException;
 import com.example.task_manager.exception.TaskNotFoundException;
 import com.example.task_manager.exception.UserNotFoundException;
 import com.example.task_manager.mapper.TaskMapper;
+import com.example.task_manager.pagination.KeysetCursor;
 import com.example.task_manager.repository.TaskRepository;
+import com.example.task_manager.repository.TaskSearchRepository;
 import com.example.task_manager.repository.UserRepository;
+import com.example.task_manager.repository.UserTaskStatsRepository;
+import com.example.task_manager.security.CurrentUser;
+import com.example.task_manager.security.policy.Authorize;
+import com.example.task_manager.security.policy.Policy;
+import com.example.task_manager.specification.TaskSpecifications;
+import com.example.task_manager.suggestion.TaskTitleSuggester;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.access.prepost.PostAuthorize;
-import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @Slf4j
 public class TaskService {
 
+    // Colonnes indexées utilisables pour la pagination par curseur
+    private static final KeysetCursor CURSOR = new KeysetCursor(Map.of(
+            "id", Long::valueOf,
+            "dateCreation", Instant::parse
+    ));
+
+    // Colonnes autorisées pour le tri de la recherche filtrée
+    private static final Set<String> FILTER_SORTABLE = Set.of("id", "title", "dateCreation", "done");
+
     private final TaskRepository taskRepository;
     private final UserRepository userRepository;
     private final TaskMapper taskMapper;
+    private final UserTaskStatsRepository userTaskStatsRepository;
+    private final TaskSearchRepository taskSearchRepository;
+    private final TaskTitleSuggester taskTitleSuggester;
+    private final TaskTitleFilter taskTitleFilter;
 
     public TaskService(final TaskRepository taskRepository,
                        final UserRepository userRepository,
-                       final TaskMapper taskMapper) {
+                       final TaskMapper taskMapper,
+                       final UserTaskStatsRepository userTaskStatsRepository,
+                       final TaskSearchRepository taskSearchRepository,
+                       final TaskTitleSuggester taskTitleSuggester,
+                       final TaskTitleFilter taskTitleFilter) {
         this.taskRepository = taskRepository;
         this.userRepository = userRepository;
         this.taskMapper = taskMapper;
+        this.userTaskStatsRepository = userTaskStatsRepository;
+        this.taskSearchRepository = taskSearchRepository;
+        this.taskTitleSuggester = taskTitleSuggester;
+        this.taskTitleFilter = taskTitleFilter;
     }
 
-    @PreAuthorize("hasRole('ADMIN') or #taskDto.userId == authentication.principal.id")
+    @Authorize(value = Policy.OWNER_OR_ADMIN, owner = "taskDto")
+    @Transactional
     public TaskResponseDto save(final CreateTaskDto taskDto) {
         log.info("Création d'une nouvelle tâche: '{}' pour l'utilisateur ID: {}", taskDto.getTitle(), taskDto.getUserId());
-        User user = userRepository.findById(taskDto.getUserId())
-                .orElseThrow(() -> new UserNotFoundException(taskDto.getUserId()));
-
-        taskRepository.findByTitle(taskDto.getTitle()).ifPresent(t -> {
-            log.warn("Échec création tâche: titre déjà utilisé '{}'", taskDto.getTitle());
-            throw new TaskAlreadyExistException(taskDto.getTitle());
-        });
-
+        // Ni lecture préalable de l'utilisateur ni contrôle du titre : les contraintes de la base
+        // (clé étrangère, unicité du titre) tranchent, y compris entre créations concurrentes
         Task task = taskMapper.toEntity(taskDto);
-        task.setUser(user);
-        Task taskSave = taskRepository.save(task);
+        task.setUser(userRepository.getReferenceById(taskDto.getUserId()));
+        Task taskSave;
+        try {
+            taskSave = taskRepository.saveAndFlush(task);
+        } catch (DataIntegrityViolationException ex) {
+            throw translateViolation(ex, taskDto.getTitle(), taskDto.getUserId());
+        }
+        taskTitleFilter.add(taskSave.getTitle());
+        adjustStats(taskDto.getUserId(), 1, taskSave.isDone() ? 1 : 0);
+        taskTitleSuggester.taskSaved(taskDto.getUserId(), taskSave.getId(), taskSave.getTitle());
 
         log.info("Tâche créée avec succès (ID: {})", taskSave.getId());
+        // La réponse expose le nom et l'email du propriétaire : la référence est chargée ici, une fois
+        // l'insertion acceptée (INSERT, UPDATE des compteurs, SELECT de l'utilisateur, cf. TaskQueryCountTest)
         return taskMapper.toResponseDto(taskSave);
     }
 
-    @PreAuthorize("hasRole('ADMIN')")
+    @Authorize(Policy.ADMIN)
+    @Transactional(readOnly = true)
     public Page<TaskResponseDto> findAll(Pageable pageable) {
         log.info("Récupération de toutes les tâches (Admin) - Page: {}, Taille: {}", pageable.getPageNumber(), pageable.getPageSize());
-        return taskRepository.findAll(pageable).map(taskMapper::toResponseDto);
+        // Le total provient des compteurs maintenus : pas de COUNT(*) sur tasks
+        Slice<TaskResponseDto> slice = taskRepository.findAllProjectedBy(pageable);
+        return new PageImpl<>(slice.getContent(), pageable, userTaskStatsRepository.sumTotal());
+    }
+
+    @Authorize(Policy.ADMIN)
+    @Transactional(readOnly = true)
+    public CursorPageResponse<TaskResponseDto> scrollAll(String cursor, int size, String sortBy, boolean ascending) {
+        log.info("Récupération de toutes les tâches par curseur (Admin) - Taille: {}, Tri: {}", size, sortBy);
+        Window<Task> window = taskRepository.findAllBy(
+                CURSOR.position(cursor, sortBy), CURSOR.sort(sortBy, ascending), Limit.of(size));
+        return new CursorPageResponse<>(
+                window.map(taskMapper::toResponseDto).getContent(), window.size(), CURSOR.next(window, sortBy));
+    }
+
+    @Authorize(value = Policy.OWNER_OR_ADMIN, owner = "filter")
+    @Transactional(readOnly = true)
+    public Page<TaskResponseDto> search(final TaskFilterDto filter, Pageable pageable) {
+        log.info("Recherche de tâches - Filtres: {}, Page: {}, Taille: {}",
+                filter, pageable.getPageNumber(), pageable.getPageSize());
+        for (Sort.Order order : pageable.getSort()) {
+            if (!FILTER_SORTABLE.contains(order.getProperty())) {
+                throw new InvalidPageRequestException(
+                        "Tri impossible sur '" + order.getProperty() + "', colonnes autorisées : " + FILTER_SORTABLE);
+            }
+        }
+        return taskRepository.findAll(TaskSpecifications.matching(filter), pageable)
+                .map(taskMapper::toResponseDto);
     }
 
-    @PostAuthorize("hasRole('ADMIN') or returnObject.user.id = authentication.principal.id")
-    public TaskResponseDto findById(final Long taskId) {
+    // Mêmes règles d'accès que findByUser : un utilisateur ne cherche que dans ses propres tâches
+    @Authorize(value = Policy.OWNER_OR_ADMIN, owner = "userId")
+    @Transactional(readOnly = true)
+    public CursorPageResponse<TaskResponseDto> fullTextSearch(
+            final String query, final Long userId, String cursor, int size) {
+        log.info("Recherche plein texte des tâches - Utilisateur ID: {}, Taille: {}", userId, size);
+        if (userId != null && !userRepository.existsById(userId)) {
+            throw new UserNotFoundException(userId);
+        }
+        return taskSearchRepository.search(query, userId, cursor, size);
+    }
+
+    // Sans transaction : l'index est le plus souvent en cache, une connexion n'est prise qu'à sa construction
+    @Authorize(value = Policy.OWNER_OR_ADMIN, owner = "userId")
+    public List<TaskSuggestionDto> suggest(final Long userId, final String prefix, int limit) {
+        return taskTitleSuggester.suggest(userId, prefix, limit);
+    }
+
+    // La propriété fait partie de la requête : une tâche d'un autre utilisateur n'est ni lue ni mappée (404)
+    @Authorize(Policy.AUTHENTICATED)
+    @Transactional(readOnly = true)
+    public Versioned<TaskResponseDto> findById(final Long taskId) {
         log.info("Récupération de la tâche ID: {}", taskId);
-        return taskRepository.findById(taskId).map(taskMapper::toResponseDto)
+        return taskRepository.findVersionedById(taskId, ownerRestriction())
+                .map(VersionedTaskResponseDto::versioned)
                 .orElseThrow(() -> new TaskNotFoundException(taskId));
     }
 
-    @PreAuthorize("hasRole('ADMIN') or #idUser == authentication.principal.id")
-    public Page<TaskResponseDto> findByUser(final Long idUser, Pageable pageable) {
+    // Versions seules de la tâche : un GET conditionnel satisfait (304) ne charge ni ne sérialise la tâche
+    @Authorize(Policy.AUTHENTICATED)
+    @Transactional(readOnly = true)
+    public TaskVersionDto findVersion(final Long taskId) {
+        return taskRepository.findVersionById(taskId, ownerRestriction())
+                .orElseThrow(() -> new TaskNotFoundException(taskId));
+    }
+
+    @Authorize(value = Policy.OWNER_OR_ADMIN, owner = "idUser")
+    @Transactional(readOnly = true)
+    public Versioned<Page<TaskResponseDto>> findByUser(final Long idUser, Pageable pageable) {
         log.info("Récupération des tâches pour l'utilisateur ID: {}", idUser);
-        User user = userRepository.findById(idUser)
-                .orElseThrow(() -> new UserNotFoundException(idUser));
-        return taskRepository.findAllByUser(user, pageable)
-                .map(taskMapper::toResponseDto);
+        TaskListVersionDto version = listVersion(idUser);
+        // Le total provient des compteurs maintenus : pas de COUNT(*) sur tasks
+        Slice<TaskResponseDto> slice = taskRepository.findAllProjectedByUserId(idUser, pageable);
+        return new Versioned<>(new PageImpl<>(slice.getContent(), pageable, version.total()), version.etag());
+    }
+
+    // ETag des pages de tâches d'un utilisateur, lu sur sa seule ligne de compteurs
+    @Authorize(value = Policy.OWNER_OR_ADMIN, owner = "idUser")
+    @Transactional(readOnly = true)
+    public String findByUserETag(final Long idUser) {
+        return listVersion(idUser).etag();
+    }
+
+    // Tout utilisateur possède une ligne de compteurs : son existence n'est vérifiée qu'à défaut
+    private TaskListVersionDto listVersion(Long idUser) {
+        return userTaskStatsRepository.findListVersionByUserId(idUser).orElseGet(() -> new TaskListVersionDto(
+                0, 0, userRepository.findVersionById(idUser).orElseThrow(() -> new UserNotFoundException(idUser))));
     }
 
-    @PreAuthorize("hasRole('ADMIN') or @taskRepository.findById(#taskId).orElse(null)?.user?.id == authentication.principal.id")
-    public TaskResponseDto update(final Long taskId, final CreateTaskDto taskDto) {
+    @Authorize(value = Policy.OWNER_OR_ADMIN, owner = "idUser")
+    @Transactional(readOnly = true)
+    public TaskStatsDto statsByUser(final Long idUser) {
+        log.info("Récupération des statistiques de tâches pour l'utilisateur ID: {}", idUser);
+        return userTaskStatsRepository.findById(idUser)
+                .map(stats -> new TaskStatsDto(idUser, stats.getTotal(), stats.getDone(), stats.getPending()))
+                .orElseGet(() -> {
+                    if (!userRepository.existsById(idUser)) {
+                        throw new UserNotFoundException(idUser);
+                    }
+                    return new TaskStatsDto(idUser, 0, 0, 0);
+                });
+    }
+
+    @Authorize(value = Policy.OWNER_OR_ADMIN, owner = "idUser")
+    @Transactional(readOnly = true)
+    public CursorPageResponse<TaskResponseDto> scrollByUser(
+            final Long idUser, String cursor, int size, String sortBy, boolean ascending) {
+        log.info("Récupération des tâches par curseur pour l'utilisateur ID: {}", idUser);
+        Window<Task> window = taskRepository.findAllByUserId(
+                idUser, CURSOR.position(cursor, sortBy), CURSOR.sort(sortBy, ascending), Limit.of(size));
+        // Existence de l'utilisateur vérifiée seulement si la page est vide : une requête de moins sinon
+        if (window.isEmpty() && !userRepository.existsById(idUser)) {
+            throw new UserNotFoundException(idUser);
+        }
+        return new CursorPageResponse<>(
+                window.map(taskMapper::toResponseDto).getContent(), window.size(), CURSOR.next(window, sortBy));
+    }
+
+    // Une seule lecture de la tâche, qui vérifie aussi la propriété : pas de chargement préalable pour la règle
+    @Authorize(Policy.AUTHENTICATED)
+    @Transactional
+    public TaskResponseDto update(final Long taskId, final CreateTaskDto taskDto, final Long expectedVersion) {
         log.info("Mise à jour de la tâche ID: {}", taskId);
 
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new TaskNotFoundException(taskId));
-        User user = userRepository.findById(taskDto.getUserId())
-                .orElseThrow(() -> new UserNotFoundException(taskDto.getUserId()));
+        Task task = findAccessible(taskId);
+        checkVersion(task, expectedVersion);
+        Long previousUserId = task.getUser().getId();
+        boolean previouslyDone = task.isDone();
+        // L'utilisateur courant est déjà chargé avec la tâche : relu seulement s'il change
+        if (!previousUserId.equals(taskDto.getUserId())) {
+            task.setUser(userRepository.findById(taskDto.getUserId())
+                    .orElseThrow(() -> new UserNotFoundException(taskDto.getUserId())));
+        }
 
         task.setTitle(taskDto.getTitle());
         task.setDescription(taskDto.getDescription());
         task.setDone(taskDto.isDone());
-        task.setUser(user);
 
         Task taskUpdated = taskRepository.save(task);
+        taskChanged(taskUpdated, previousUserId, previouslyDone);
         log.info("Tâche ID: {} mise à jour avec succès", taskId);
         return taskMapper.toResponseDto(taskUpdated);
     }
 
-    @PreAuthorize("hasRole('ADMIN')")
-    public void delete(final Long id) {
+    /**
+     * Applique un JSON Merge Patch : seuls les champs présents sont modifiés, et l'UPDATE émis
+     * (entité en {@code @DynamicUpdate}) ne liste que les colonnes réellement changées.
+     *
+     * @param expectedVersion version lue dans l'If-Match du client, null sans précondition
+     */
+    @Authorize(Policy.AUTHENTICATED)
+    @Transactional
+    public TaskResponseDto patch(final Long taskId, final TaskPatchDto patch, final Long expectedVersion) {
+        log.info("Modification partielle de la tâche ID: {}", taskId);
+
+        Task task = findAccessible(taskId);
+        checkVersion(task, expectedVersion);
+        Long previousUserId = task.getUser().getId();
+        boolean previouslyDone = task.isDone();
+
+        if (patch.isUserIdPresent() && !previousUserId.equals(patch.getUserId())) {
+            task.setUser(userRepository.findById(patch.getUserId())
+                    .orElseThrow(() -> new UserNotFoundException(patch.getUserId())));
+        }
+        if (patch.isTitlePresent()) {
+            task.setTitle(patch.getTitle());
+        }
+        if (patch.isDescriptionPresent()) {
+            task.setDescription(patch.getDescription());
+        }
+        if (patch.isDonePresent()) {
+            task.setDone(patch.getDone());
+        }
+
+        Task taskPatched;
+        try {
+            taskPatched = taskRepository.saveAndFlush(task);
+        } catch (DataIntegrityViolationException ex) {
+            throw translateViolation(ex, task.getTitle(), task.getUser().getId());
+        }
+        taskChanged(taskPatched, previousUserId, previouslyDone);
+        log.info("Tâche ID: {} modifiée avec succès", taskId);
+        return taskMapper.toResponseDto(taskPatched);
+    }
+
+    /**
+     * Inverse le statut d'une tâche en une seule instruction UPDATE conditionnelle, sans lecture préalable.
+     * Pour un utilisateur non administrateur, la condition porte aussi sur le propriétaire : une tâche
+     * d'un autre utilisateur est traitée comme inexistante. La version attendue (If-Match) fait elle aussi
+     * partie de la condition ; ce n'est qu'en cas d'échec qu'une lecture distingue 404 et 412.
+     */
+    @Authorize(Policy.AUTHENTICATED)
+    @Transactional
+    public void toggleDone(final Long taskId, final Long expectedVersion) {
+        log.info("Inversion du statut de la tâche ID: {}", taskId);
+        Long ownerId = ownerRestriction();
+        int updated = ownerId == null
+                ? taskRepository.toggleDone(taskId, expectedVersion)
+                : taskRepository.toggleDoneOwnedBy(taskId, ownerId, expectedVersion);
+        if (updated == 0) {
+            if (expectedVersion != null && taskRepository.findVersionById(taskId, ownerId).isPresent()) {
+                throw new PreconditionFailedException("tâche", taskId);
+            }
+            throw new TaskNotFoundException(taskId);
+        }
+        if (userTaskStatsRepository.applyDoneToggle(taskId) == 0) {
+            log.warn("Compteurs absents pour le propriétaire de la tâche ID: {}", taskId);
+        }
+    }
+
+    /**
+     * Crée un lot de tâches dans une seule transaction : utilisateurs et titres existants sont chargés en
+     * une requête chacun, les insertions partent par lots JDBC. Un élément refusé n'empêche pas les autres.
+     */
+    @Authorize(Policy.AUTHENTICATED)
+    @Transactional
+    public TaskBatchResultDto saveAll(final List<CreateTaskDto> taskDtos) {
+        log.info("Création par lot de {} tâche(s)", taskDtos.size());
+        Long principalId = CurrentUser.id();
+        boolean admin = CurrentUser.isAdmin();
+
+        Map<Long, User> users = usersById(taskDtos.stream().map(CreateTaskDto::getUserId).toList());
+        // Seuls les titres que le filtre ne peut pas exclure sont recherchés en base
+        Set<String> takenTitles = new HashSet<>(taskTitleFilter.existing(
+                taskDtos.stream().map(CreateTaskDto::getTitle).toList(),
+                titles -> taskRepository.findIdAndTitleByTitleIn(titles).stream()
+                        .map(TaskSuggestionDto::title)
+                        .toList()));
+
+        TaskBatchItemResultDto[] results = new TaskBatchItemResultDto[taskDtos.size()];
+        Map<Integer, Task> created = new LinkedHashMap<>();
+        for (int i = 0; i < taskDtos.size(); i++) {
+            CreateTaskDto taskDto = taskDtos.get(i);
+            User user = users.get(taskDto.getUserId());
+            if (!admin && !taskDto.getUserId().equals(principalId)) {
+                results[i] = failure(i, null, HttpStatus.FORBIDDEN, "Accès refusé");
+            } else if (user == null) {
+                results[i] = failure(i, null, HttpStatus.NOT_FOUND, new UserNotFoundException(taskDto.getUserId()));
+            } else if (!takenTitles.add(taskDto.getTitle())) {
+                results[i] = failure(i, null, HttpStatus.BAD_REQUEST,
+                        new TaskAlreadyExistException(taskDto.getTitle()));
+            } else {
+                Task task = taskMapper.toEntity(taskDto);
+                task.setUser(user);
+                created.put(i, task);
+            }
+        }
+
+        taskRepository.saveAll(created.values());
+        StatsDeltas deltas = new StatsDeltas();
+        created.forEach((i, task) -> {
+            results[i] = new TaskBatchItemResultDto(i, task.getId(), HttpStatus.CREATED.value(), null);
+            deltas.add(task.getUser().getId(), 1, task.isDone() ? 1 : 0);
+            taskTitleFilter.add(task.getTitle());
+            taskTitleSuggester.taskSaved(task.getUser().getId(), task.getId(), task.getTitle());
+        });
+        deltas.apply();
+
+        log.info("Création par lot terminée : {} tâche(s) créée(s) sur {}", created.size(), taskDtos.size());
+        return TaskBatchResultDto.of(List.of(results));
+    }
+
+    /**
+     * Met à jour un lot de tâches dans une seule transaction : tâches (limitées à celles de l'utilisateur
+     * hors administrateur), utilisateurs cibles et titres existants sont chargés en une requête chacun.
+     * Un titre libéré par une autre tâche du lot ne peut pas être repris dans ce même lot : les UPDATE
+     * partent au commit dans un ordre quelconque et la contrainte uq_tasks_title n'est pas différée.
+     */
+    @Authorize(Policy.AUTHENTICATED)
+    @Transactional
+    public TaskBatchResultDto updateAll(final List<UpdateTaskItemDto> taskDtos) {
+        log.info("Mise à jour par lot de {} tâche(s)", taskDtos.size());
+        Long ownerId = ownerRestriction();
+        List<Long> ids = taskDtos.stream().map(UpdateTaskItemDto::getId).toList();
+
+        Map<Long, Task> tasks = new HashMap<>();
+        (ownerId == null ? taskRepository.findAllById(ids) : taskRepository.findAllByIdInAndUserId(ids, ownerId))
+                .forEach(task -> tasks.put(task.getId(), task));
+        Map<Long, User> users = usersById(taskDtos.stream().map(CreateTaskDto::getUserId).toList());
+        Map<String, Long> titleOwners = new HashMap<>();
+        taskRepository.findIdAndTitleByTitleIn(taskDtos.stream().map(CreateTaskDto::getTitle).toList())
+                .forEach(existing -> titleOwners.put(existing.title(), existing.id()));
+
+        Set<String> freedTitles = new HashSet<>();
+
+        List<TaskBatchItemResultDto> results = new ArrayList<>(taskDtos.size());
+        StatsDeltas deltas = new StatsDeltas();
+        for (int i = 0; i < taskDtos.size(); i++) {
+            UpdateTaskItemDto taskDto = taskDtos.get(i);
+            Task task = tasks.get(taskDto.getId());
+            User user = users.get(taskDto.getUserId());
+            if (task == null) {
+                results.add(failure(i, taskDto.getId(), HttpStatus.NOT_FOUND,
+                        new TaskNotFoundException(taskDto.getId())));
+                continue;
+            }
+            Long previousUserId = task.getUser().getId();
+            boolean renamed = !taskDto.getTitle().equals(task.getTitle());
+            if (ownerId != null && !taskDto.getUserId().equals(ownerId)) {
+                results.add(failure(i, task.getId(), HttpStatus.FORBIDDEN, "Accès refusé"));
+            } else if (user == null) {
+                results.add(failure(i, task.getId(), HttpStatus.NOT_FOUND,
+                        new UserNotFoundException(taskDto.getUserId())));
+            } else if (!task.getId().equals(titleOwners.getOrDefault(taskDto.getTitle(), task.getId()))) {
+                results.add(failure(i, task.getId(), HttpStatus.BAD_REQUEST,
+                        new TaskAlreadyExistException(taskDto.getTitle())));
+            } else if (renamed && freedTitles.contains(taskDto.getTitle())) {
+                results.add(failure(i, task.getId(), HttpStatus.CONFLICT,
+                        "Le titre " + taskDto.getTitle() + " est libéré par une autre tâche du même lot"));
+            } else {
+                if (renamed) {
+                    titleOwners.remove(task.getTitle());
+                    freedTitles.add(task.getTitle());
+                }
+                titleOwners.put(taskDto.getTitle(), task.getId());
+                boolean previouslyDone = task.isDone();
+                deltas.add(previousUserId, -1, previouslyDone ? -1 : 0);
+                deltas.add(user.getId(), 1, taskDto.isDone() ? 1 : 0);
+
+                task.setTitle(taskDto.getTitle());
+                task.setDescription(taskDto.getDescription());
+                task.setDone(taskDto.isDone());
+                task.setUser(user);
+                if (!previousUserId.equals(user.getId())) {
+                    taskTitleSuggester.taskRemoved(previousUserId, task.getId());
+                }
+                taskTitleFilter.add(task.getTitle());
+                taskTitleSuggester.taskSaved(user.getId(), task.getId(), task.getTitle());
+                results.add(new TaskBatchItemResultDto(i, task.getId(), HttpStatus.OK.value(), null));
+            }
+        }
+        // Les UPDATE des entités modifiées partent par lots au flush du commit : aucun titre n'y passe
+        // d'une tâche à une autre, leur ordre ne peut donc pas heurter la contrainte d'unicité
+        deltas.apply();
+        return TaskBatchResultDto.of(results);
+    }
+
+    @Authorize(Policy.ADMIN)
+    @Transactional
+    public TaskBatchResultDto deleteAll(final List<Long> ids) {
+        log.info("Suppression par lot de {} tâche(s)", ids.size());
+        Map<Long, Task> tasks = new HashMap<>();
+        taskRepository.findAllById(ids).forEach(task -> tasks.put(task.getId(), task));
+
+        List<TaskBatchItemResultDto> results = new ArrayList<>(ids.size());
+        StatsDeltas deltas = new StatsDeltas();
+        Set<Long> deleted = new LinkedHashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            Task task = tasks.get(id);
+            if (task == null || !deleted.add(id)) {
+                results.add(failure(i, id, HttpStatus.NOT_FOUND, new TaskNotFoundException(id)));
+                continue;
+            }
+            deltas.add(task.getUser().getId(), -1, task.isDone() ? -1 : 0);
+            taskTitleSuggester.taskRemoved(task.getUser().getId(), id);
+            results.add(new TaskBatchItemResultDto(i, id, HttpStatus.OK.value(), null));
+        }
+
+        // Une seule instruction DELETE ... WHERE id IN (...)
+        if (!deleted.isEmpty()) {
+            taskRepository.deleteAllByIdInBatch(deleted);
+        }
+        deltas.apply();
+        return TaskBatchResultDto.of(results);
+    }
+
+    @Authorize(Policy.ADMIN)
+    @Transactional
+    public void delete(final Long id, final Long expectedVersion) {
         log.info("Suppression de la tâche ID: {}", id);
-        if (!taskRepository.existsById(id)) {
+        Task task = taskRepository.findById(id).orElseThrow(() -> {
             log.warn("Suppression impossible: tâche ID: {} non trouvée", id);
-            throw new TaskNotFoundException(id);
-        }
-        taskRepository.deleteById(id);
+            return new TaskNotFoundException(id);
+        });
+        checkVersion(task, expectedVersion);
+        taskRepository.delete(task);
+        adjustStats(task.getUser().getId(), -1, task.isDone() ? -1 : 0);
+        taskTitleSuggester.taskRemoved(task.getUser().getId(), id);
         log.info("Tâche ID: {} supprimée", id);
     }
+
+    // Compteurs, filtre d'existence et autocomplétion après la modification d'une tâche existante
+    private void taskChanged(Task task, Long previousUserId, boolean previouslyDone) {
+        Long userId = task.getUser().getId();
+        if (!previousUserId.equals(userId)) {
+            adjustStats(previousUserId, -1, previouslyDone ? -1 : 0);
+            adjustStats(userId, 1, task.isDone() ? 1 : 0);
+            taskTitleSuggester.taskRemoved(previousUserId, task.getId());
+        } else {
+            // Même sans changement de statut, l'écriture compte pour l'ETag des listes de l'utilisateur
+            adjustStats(userId, 0, previouslyDone == task.isDone() ? 0 : (task.isDone() ? 1 : -1));
+        }
+        taskTitleFilter.add(task.getTitle());
+        taskTitleSuggester.taskSaved(userId, task.getId(), task.getTitle());
+    }
+
+    // Propriétaire imposé aux requêtes d'une tâche : null pour un administrateur, qui accède à toutes
+    private static Long ownerRestriction() {
+        if (CurrentUser.isAdmin()) {
+            return null;
+        }
+        Long principalId = CurrentUser.id();
+        if (principalId == null) {
+            throw new AccessDeniedException("Utilisateur authentifié sans identifiant applicatif");
+        }
+        return principalId;
+    }
+
+    // Tâche chargée avec son utilisateur, limitée à celles du principal s'il n'est pas administrateur :
+    // une tâche d'un autre utilisateur est traitée comme inexistante
+    private Task findAccessible(Long taskId) {
+        Long ownerId = ownerRestriction();
+        return (ownerId == null ? taskRepository.findById(taskId) : taskRepository.findByIdAndUserId(taskId, ownerId))
+                .orElseThrow(() -> new TaskNotFoundException(taskId));
+    }
+
+    // If-Match : la version chargée doit être celle que le client a lue ; @Version protège ensuite l'écriture
+    private static void checkVersion(Task task, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(task.getVersion())) {
+            log.warn("Précondition échouée pour la tâche ID: {} (version {}, attendue {})",
+                    task.getId(), task.getVersion(), expectedVersion);
+            throw new PreconditionFailedException("tâche", task.getId());
+        }
+    }
+
+    private static RuntimeException translateViolation(DataIntegrityViolationException ex, String title, Long userId) {
+        if (DataIntegrityViolations.isUniqueViolation(ex)) {
+            log.warn("Échec écriture tâche: titre déjà utilisé '{}'", title);
+            return new TaskAlreadyExistException(title);
+        }
+        if (DataIntegrityViolations.isForeignKeyViolation(ex)) {
+            return new UserNotFoundException(userId);
+        }
+        return ex;
+    }
+
+    private Map<Long, User> usersById(List<Long> ids) {
+        Map<Long, User> users = new HashMap<>();
+        userRepository.findAllById(new HashSet<>(ids)).forEach(user -> users.put(user.getId(), user));
+        return users;
+    }
+
+    private static TaskBatchItemResultDto failure(int index, Long id, HttpStatus status, RuntimeException cause) {
+        return failure(index, id, status, cause.getMessage());
+    }
+
+    private static TaskBatchItemResultDto failure(int index, Long id, HttpStatus status, String message) {
+        return new TaskBatchItemResultDto(index, id, status.value(), message);
+    }
+
+    // Deltas de compteurs d'un lot, agrégés par utilisateur : une mise à jour par utilisateur touché,
+    // y compris pour des deltas nuls (le compteur de modifications sert d'ETag aux listes)
+    private final class StatsDeltas {
+        private final Map<Long, long[]> byUser = new HashMap<>();
+
+        void add(Long userId, long total, long done) {
+            long[] delta = byUser.computeIfAbsent(userId, id -> new long[2]);
+            delta[0] += total;
+            delta[1] += done;
+        }
+
+        void apply() {
+            byUser.forEach((userId, delta) -> adjustStats(userId, delta[0], delta[1]));
+        }
+    }
+
+    // Compteurs mis à jour dans la même transaction que l'écriture de la tâche
+    private void adjustStats(Long userId, long total, long done) {
+        if (userTaskStatsRepository.increment(userId, total, done) == 0) {
+            // Utilisateur sans ligne de compteurs : la réconciliation la créera et la recalculera
+            log.warn("Compteurs de tâches absents pour l'utilisateur ID: {}", userId);
+        }
+    }
 }
\ No newline at end of file
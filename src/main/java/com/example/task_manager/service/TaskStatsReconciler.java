@@ -0,0 +1,34 @@
+package com.example.task_manager.service;
+
+import com.example.task_manager.repository.UserTaskStatsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Filet de sécurité pour les compteurs de user_task_stats : les écritures applicatives les maintiennent
+ * dans la même transaction, mais une modification directe en base peut les faire dériver.
+ */
+@Component
+@Slf4j
+public class TaskStatsReconciler {
+
+    private final UserTaskStatsRepository userTaskStatsRepository;
+
+    public TaskStatsReconciler(UserTaskStatsRepository userTaskStatsRepository) {
+        this.userTaskStatsRepository = userTaskStatsRepository;
+    }
+
+    @Scheduled(cron = "${task-stats.reconcile-cron:0 0 3 * * *}")
+    @Transactional
+    public void reconcile() {
+        int created = userTaskStatsRepository.insertMissing();
+        int fixed = userTaskStatsRepository.reconcile();
+        if (created > 0 || fixed > 0) {
+            log.warn("Compteurs de tâches réconciliés : {} ligne(s) créée(s), {} ligne(s) corrigée(s)", created, fixed);
+        } else {
+            log.info("Compteurs de tâches cohérents");
+        }
+    }
+}
@@ -1,83 +1,159 @@
 package com.example.task_manager.service;
 
+import com.example.task_manager.bloom.UserEmailFilter;
+import com.example.task_manager.dto.CursorPageResponse;
+import com.example.task_manager.dto.Versioned;
 import com.example.task_manager.dto.user.CreateUserDto;
 import com.example.task_manager.dto.user.UpdateUserDto;
 import com.example.task_manager.dto.user.UserResponseDto;
 import com.example.task_manager.entity.User;
+import com.example.task_manager.entity.UserTaskStats;
+import com.example.task_manager.exception.DataIntegrityViolations;
+import com.example.task_manager.exception.PreconditionFailedException;
 import com.example.task_manager.exception.UserAlreadyExistException;
 import com.example.task_manager.exception.UserNotFoundException;
 import com.example.task_manager.mapper.UserMapper;
+import com.example.task_manager.pagination.KeysetCursor;
 import com.example.task_manager.repository.UserRepository;
+import com.example.task_manager.repository.UserTaskStatsRepository;
+import com.example.task_manager.security.policy.Authorize;
+import com.example.task_manager.security.policy.Policy;
+import com.example.task_manager.security.service.CustomUserDetailsService;
+import com.example.task_manager.security.service.TokenVersionService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
 
 @Service
 @Slf4j
 public class UserService {
 
+    // Colonnes indexées utilisables pour la pagination par curseur
+    private static final KeysetCursor CURSOR = new KeysetCursor(Map.of(
+            "id", Long::valueOf,
+            "email", value -> value
+    ));
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
-
-    public UserService(UserRepository userRepository, UserMapper userMapper) {
+    private final TokenVersionService tokenVersionService;
+    private final CustomUserDetailsService userDetailsService;
+    private final UserTaskStatsRepository userTaskStatsRepository;
+    private final UserEmailFilter userEmailFilter;
+
+    public UserService(UserRepository userRepository,
+                       UserMapper userMapper,
+                       TokenVersionService tokenVersionService,
+                       CustomUserDetailsService userDetailsService,
+                       UserTaskStatsRepository userTaskStatsRepository,
+                       UserEmailFilter userEmailFilter) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
+        this.tokenVersionService = tokenVersionService;
+        this.userDetailsService = userDetailsService;
+        this.userTaskStatsRepository = userTaskStatsRepository;
+        this.userEmailFilter = userEmailFilter;
     }
 
-    @PreAuthorize("hasRole('ADMIN') or hasRole('USER')")
+    @Authorize(Policy.USER_OR_ADMIN)
+    @Transactional
     public UserResponseDto save(CreateUserDto userDto) {
         log.info("Tentative d'enregistrement d'un nouvel utilisateur avec l'email : {}", userDto.getEmail());
 
-        userRepository.findByEmail(userDto.getEmail()).ifPresent(u -> {
+        if (userEmailFilter.exists(userDto.getEmail(), userRepository::existsByEmailIgnoreCase)) {
             log.warn("Échec de l'enregistrement : l'email {} est déjà utilisé", userDto.getEmail());
             throw new UserAlreadyExistException();
-        });
+        }
 
         User user = userMapper.toEntity(userDto);
 
-        User userSave =  userRepository.save(user);
+        // Le filtre peut manquer un email : l'index unique sur lower(email) tranche en dernier ressort
+        User userSave = saveAndFlush(user);
+        userTaskStatsRepository.save(new UserTaskStats(userSave.getId(), 0, 0));
+        userEmailFilter.add(userSave.getEmail());
 
         log.info("Utilisateur enregistré avec succès. ID : {}, Email : {}", userSave.getId(), userSave.getEmail());
         return userMapper.toResponseDto(userSave);
     }
 
-    @PreAuthorize("hasRole('ADMIN') or #idUser == authentication.principal.id")
-   public UserResponseDto update(Long idUser, UpdateUserDto userDto) {
+    @Authorize(value = Policy.OWNER_OR_ADMIN, owner = "idUser")
+    @Transactional
+    public UserResponseDto update(Long idUser, UpdateUserDto userDto, Long expectedVersion) {
         log.info("Demande de mise à jour pour l'utilisateur ID : {}", idUser);
 
         User userFind = userRepository.findById(idUser).orElseThrow(() -> {
             log.warn("Mise à jour impossible : utilisateur ID {} non trouvé", idUser);
             return new UserNotFoundException(idUser);
         });
+        checkVersion(idUser, userFind.getVersion(), expectedVersion);
 
+        // L'email est le subject des tokens : un changement révoque les tokens existants
+        String previousEmail = userFind.getEmail();
+        boolean emailChanged = !previousEmail.equals(userDto.getEmail());
         userFind.setName(userDto.getName());
         userFind.setEmail(userDto.getEmail());
+        if (emailChanged) {
+            userFind.setTokenVersion(userFind.getTokenVersion() + 1);
+        }
 
-        User userUpdated = userRepository.save(userFind);
+        // Flush immédiat : un conflit de version échoue ici, avant l'invalidation des caches et des tokens
+        User userUpdated = saveAndFlush(userFind);
+        userDetailsService.evict(previousEmail);
+        if (emailChanged) {
+            userEmailFilter.add(userUpdated.getEmail());
+            tokenVersionService.refresh(userUpdated);
+        }
         log.info("Utilisateur ID {} mis à jour avec succès", idUser);
         return userMapper.toResponseDto(userUpdated);
     }
 
-    @PreAuthorize("hasRole('ADMIN')")
+    @Authorize(Policy.ADMIN)
+    @Transactional(readOnly = true)
     public Page<UserResponseDto> findAll(Pageable pageable) {
         log.info("Récupération de la liste paginée des utilisateurs. Page : {}, Taille : {}",
                 pageable.getPageNumber(), pageable.getPageSize());
         return userRepository.findAll(pageable).map(userMapper::toResponseDto);
     }
 
-    @PreAuthorize("hasRole('ADMIN') or #id == authentication.principal.id")
-    public UserResponseDto findById(Long id) {
+    @Authorize(Policy.ADMIN)
+    @Transactional(readOnly = true)
+    public CursorPageResponse<UserResponseDto> scrollAll(String cursor, int size, String sortBy, boolean ascending) {
+        log.info("Récupération des utilisateurs par curseur. Taille : {}, Tri : {}", size, sortBy);
+        Window<User> window = userRepository.findAllBy(
+                CURSOR.position(cursor, sortBy), CURSOR.sort(sortBy, ascending), Limit.of(size));
+        return new CursorPageResponse<>(
+                window.map(userMapper::toResponseDto).getContent(), window.size(), CURSOR.next(window, sortBy));
+    }
+
+    @Authorize(value = Policy.OWNER_OR_ADMIN, owner = "id")
+    @Transactional(readOnly = true)
+    public Versioned<UserResponseDto> findById(Long id) {
         log.info("Recherche de l'utilisateur par ID : {}", id);
         User userFind = userRepository.findById(id).orElseThrow(() -> {
             log.warn("Utilisateur ID {} introuvable", id);
             return new UserNotFoundException(id);
         });
-        return userMapper.toResponseDto(userFind);
+        return new Versioned<>(userMapper.toResponseDto(userFind), Versioned.etag(userFind.getVersion()));
     }
 
-    @PreAuthorize("hasRole('ADMIN') or #email == authentication.name")
+    // Version seule : un GET conditionnel satisfait (304) ne charge ni ne sérialise l'utilisateur
+    @Authorize(value = Policy.OWNER_OR_ADMIN, owner = "id")
+    @Transactional(readOnly = true)
+    public String findETag(Long id) {
+        return userRepository.findVersionById(id)
+                .map(Versioned::etag)
+                .orElseThrow(() -> new UserNotFoundException(id));
+    }
+
+    @Authorize(value = Policy.OWNER_OR_ADMIN, owner = "email")
+    @Transactional(readOnly = true)
     public UserResponseDto findByEmail(String email) {
         log.info("Recherche de l'utilisateur par email : {}", email);
         User userFind = userRepository.findByEmail(email).orElseThrow(() -> {
@@ -87,14 +163,39 @@ public class UserService {
         return userMapper.toResponseDto(userFind);
     }
 
-    @PreAuthorize("hasRole('ADMIN')")
-    public void delete(Long id) {
+    @Authorize(Policy.ADMIN)
+    @Transactional
+    public void delete(Long id, Long expectedVersion) {
         log.info("Tentative de suppression de l'utilisateur ID : {}", id);
-        if (!userRepository.existsById(id)) {
+        Long version = userRepository.findVersionById(id).orElseThrow(() -> {
             log.warn("Suppression avortée : l'utilisateur ID {} n'existe pas", id);
-            throw new UserNotFoundException(id);
-        }
+            return new UserNotFoundException(id);
+        });
+        checkVersion(id, version, expectedVersion);
         userRepository.deleteById(id);
+        tokenVersionService.revokeAll(id);
+        userDetailsService.evict(id);
         log.info("Utilisateur ID {} supprimé avec succès", id);
     }
+
+    private User saveAndFlush(User user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException ex) {
+            if (DataIntegrityViolations.isUniqueViolation(ex)) {
+                log.warn("Écriture refusée par la base : l'email {} est déjà utilisé", user.getEmail());
+                throw new UserAlreadyExistException();
+            }
+            throw ex;
+        }
+    }
+
+    // If-Match : la version courante doit être celle que le client a lue
+    private static void checkVersion(Long id, Long version, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(version)) {
+            log.warn("Précondition échouée pour l'utilisateur ID {} (version {}, attendue {})",
+                    id, version, expectedVersion);
+            throw new PreconditionFailedException("utilisateur", id);
+        }
+    }
 }
@@ -0,0 +1,74 @@
+package com.example.task_manager.specification;
+
+import com.example.task_manager.dto.task.TaskFilterDto;
+import com.example.task_manager.entity.Task;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Traduit un {@link TaskFilterDto} en une seule requête : seuls les critères renseignés deviennent
+ * des prédicats, chacun sur une colonne indexée (user_id, done, date_creation, title).
+ */
+public final class TaskSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private TaskSpecifications() {
+    }
+
+    public static Specification<Task> matching(TaskFilterDto filter) {
+        List<Specification<Task>> specifications = new ArrayList<>();
+        if (filter.userId() != null) {
+            specifications.add(hasUserId(filter.userId()));
+        }
+        if (filter.done() != null) {
+            specifications.add(isDone(filter.done()));
+        }
+        if (filter.createdAfter() != null) {
+            specifications.add(createdAfter(filter.createdAfter()));
+        }
+        if (filter.createdBefore() != null) {
+            specifications.add(createdBefore(filter.createdBefore()));
+        }
+        if (filter.titlePrefix() != null && !filter.titlePrefix().isBlank()) {
+            specifications.add(titleStartsWith(filter.titlePrefix()));
+        }
+        return Specification.allOf(specifications);
+    }
+
+    // Comparaison sur la clé étrangère : pas de jointure sur users
+    public static Specification<Task> hasUserId(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    public static Specification<Task> isDone(boolean done) {
+        return (root, query, cb) -> cb.equal(root.get("done"), done);
+    }
+
+    public static Specification<Task> createdAfter(Instant instant) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("dateCreation"), instant);
+    }
+
+    public static Specification<Task> createdBefore(Instant instant) {
+        return (root, query, cb) -> cb.lessThan(root.get("dateCreation"), instant);
+    }
+
+    // Préfixe uniquement (LIKE 'abc%') : utilisable par un index, contrairement à une sous-chaîne
+    public static Specification<Task> titleStartsWith(String prefix) {
+        return (root, query, cb) -> cb.like(root.get("title"), escapeLike(prefix) + "%", LIKE_ESCAPE);
+    }
+
+    private static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
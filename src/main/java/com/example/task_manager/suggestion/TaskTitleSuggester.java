@@ -0,0 +1,66 @@
+package com.example.task_manager.suggestion;
+
+import com.example.task_manager.dto.task.TaskSuggestionDto;
+import com.example.task_manager.repository.TaskRepository;
+import com.example.task_manager.transaction.TransactionCallbacks;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Autocomplétion des titres de tâches en mémoire, sans requête SQL par frappe.
+ * <p>
+ * Un {@link TitleIndex} par utilisateur, construit à la première suggestion demandée puis maintenu par
+ * {@code TaskService} après chaque commit. Le cache est borné en nombre total de titres : les index
+ * d'utilisateurs peu actifs sont évincés en entier et reconstruits à la demande.
+ */
+@Component
+@Slf4j
+public class TaskTitleSuggester {
+
+    private final TaskRepository taskRepository;
+    private final Cache<Long, TitleIndex> indexes;
+
+    public TaskTitleSuggester(
+            TaskRepository taskRepository,
+            MeterRegistry meterRegistry,
+            @Value("${task-suggest.max-titles:200000}") long maxTitles,
+            @Value("${task-suggest.expire-after-access:30m}") Duration expireAfterAccess
+    ) {
+        this.taskRepository = taskRepository;
+        this.indexes = Caffeine.newBuilder()
+                .maximumWeight(maxTitles)
+                .weigher((Long userId, TitleIndex index) -> Math.max(1, index.size()))
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, indexes, "taskSuggestions");
+    }
+
+    public List<TaskSuggestionDto> suggest(Long userId, String prefix, int limit) {
+        return indexes.get(userId, this::load).startingWith(prefix, limit);
+    }
+
+    public void taskSaved(Long userId, Long taskId, String title) {
+        TransactionCallbacks.afterCommit(() ->
+                indexes.asMap().computeIfPresent(userId, (id, index) -> index.with(taskId, title)));
+    }
+
+    public void taskRemoved(Long userId, Long taskId) {
+        TransactionCallbacks.afterCommit(() ->
+                indexes.asMap().computeIfPresent(userId, (id, index) -> index.without(taskId)));
+    }
+
+    private TitleIndex load(Long userId) {
+        List<TaskSuggestionDto> titles = taskRepository.findSuggestionsByUserId(userId);
+        log.info("Index d'autocomplétion construit pour l'utilisateur ID: {} ({} titres)", userId, titles.size());
+        return titles.isEmpty() ? TitleIndex.EMPTY : TitleIndex.of(titles);
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.task_manager.suggestion;
+
+import com.example.task_manager.dto.task.TaskSuggestionDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Index de préfixes immuable des titres d'un utilisateur : tableaux triés par titre normalisé,
+ * recherche par dichotomie puis parcours des entrées qui partagent le préfixe.
+ * Les modifications produisent un nouvel index (copie), les lectures ne prennent donc aucun verrou.
+ */
+final class TitleIndex {
+
+    static final TitleIndex EMPTY = new TitleIndex(new String[0], new long[0], new String[0]);
+
+    private final String[] keys;
+    private final long[] ids;
+    private final String[] titles;
+
+    private TitleIndex(String[] keys, long[] ids, String[] titles) {
+        this.keys = keys;
+        this.ids = ids;
+        this.titles = titles;
+    }
+
+    static TitleIndex of(List<TaskSuggestionDto> tasks) {
+        TaskSuggestionDto[] sorted = tasks.toArray(TaskSuggestionDto[]::new);
+        Arrays.sort(sorted, Comparator.comparing((TaskSuggestionDto task) -> normalize(task.title()))
+                .thenComparing(TaskSuggestionDto::id));
+        String[] keys = new String[sorted.length];
+        long[] ids = new long[sorted.length];
+        String[] titles = new String[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            keys[i] = normalize(sorted[i].title());
+            ids[i] = sorted[i].id();
+            titles[i] = sorted[i].title();
+        }
+        return new TitleIndex(keys, ids, titles);
+    }
+
+    static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    List<TaskSuggestionDto> startingWith(String prefix, int limit) {
+        String key = normalize(prefix);
+        List<TaskSuggestionDto> matches = new ArrayList<>(Math.min(limit, keys.length));
+        for (int i = lowerBound(key, Long.MIN_VALUE); i < keys.length && matches.size() < limit; i++) {
+            if (!keys[i].startsWith(key)) {
+                break;
+            }
+            matches.add(new TaskSuggestionDto(ids[i], titles[i]));
+        }
+        return matches;
+    }
+
+    // Ajoute ou remplace la tâche : idempotent, une même mise à jour peut être appliquée deux fois
+    TitleIndex with(long id, String title) {
+        TitleIndex base = without(id);
+        String key = normalize(title);
+        int at = base.lowerBound(key, id);
+        int length = base.keys.length;
+
+        String[] newKeys = new String[length + 1];
+        long[] newIds = new long[length + 1];
+        String[] newTitles = new String[length + 1];
+        System.arraycopy(base.keys, 0, newKeys, 0, at);
+        System.arraycopy(base.ids, 0, newIds, 0, at);
+        System.arraycopy(base.titles, 0, newTitles, 0, at);
+        newKeys[at] = key;
+        newIds[at] = id;
+        newTitles[at] = title;
+        System.arraycopy(base.keys, at, newKeys, at + 1, length - at);
+        System.arraycopy(base.ids, at, newIds, at + 1, length - at);
+        System.arraycopy(base.titles, at, newTitles, at + 1, length - at);
+        return new TitleIndex(newKeys, newIds, newTitles);
+    }
+
+    TitleIndex without(long id) {
+        int at = -1;
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                at = i;
+                break;
+            }
+        }
+        if (at < 0) {
+            return this;
+        }
+        int length = keys.length;
+        String[] newKeys = new String[length - 1];
+        long[] newIds = new long[length - 1];
+        String[] newTitles = new String[length - 1];
+        System.arraycopy(keys, 0, newKeys, 0, at);
+        System.arraycopy(ids, 0, newIds, 0, at);
+        System.arraycopy(titles, 0, newTitles, 0, at);
+        System.arraycopy(keys, at + 1, newKeys, at, length - at - 1);
+        System.arraycopy(ids, at + 1, newIds, at, length - at - 1);
+        System.arraycopy(titles, at + 1, newTitles, at, length - at - 1);
+        return new TitleIndex(newKeys, newIds, newTitles);
+    }
+
+    // Première position dont (clé, id) est supérieure ou égale à (key, id)
+    private int lowerBound(String key, long id) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int cmp = keys[mid].compareTo(key);
+            if (cmp < 0 || (cmp == 0 && ids[mid] < id)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
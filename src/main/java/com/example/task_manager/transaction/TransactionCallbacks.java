@@ -0,0 +1,31 @@
+package com.example.task_manager.transaction;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Effets de bord différés au commit de la transaction courante : caches et index en mémoire ne doivent
+ * refléter que ce qui a été validé en base, jamais une écriture annulée par un rollback.
+ */
+public final class TransactionCallbacks {
+
+    private TransactionCallbacks() {
+    }
+
+    /**
+     * Exécute {@code action} après le commit de la transaction courante, ou immédiatement hors transaction.
+     * Rien n'est exécuté si la transaction est annulée.
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
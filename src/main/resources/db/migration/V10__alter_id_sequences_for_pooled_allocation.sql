@@ -0,0 +1,11 @@
+-- Migration: Séquences des identifiants allouées par blocs de 50 (optimiseur "pooled" d'Hibernate)
+-- Version: V10__alter_id_sequences_for_pooled_allocation.sql
+
+-- Les colonnes restent des BIGSERIAL : les identifiants existants ne sont pas renumérotés.
+-- Hibernate réserve l'intervalle ]valeur - 50, valeur] à chaque appel de nextval : la prochaine valeur
+-- est donc placée 50 au-dessus du plus grand identifiant pour que le premier bloc commence juste après.
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+SELECT setval('users_id_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 50, false);
+
+ALTER SEQUENCE tasks_id_seq INCREMENT BY 50;
+SELECT setval('tasks_id_seq', COALESCE((SELECT MAX(id) FROM tasks), 0) + 50, false);
@@ -0,0 +1,11 @@
+-- Migration: Unicité du titre des tâches garantie par la base
+-- Version: V11__add_task_title_unique_index.sql
+
+-- Le contrôle applicatif (findByTitle puis insertion) laisse passer deux créations concurrentes :
+-- seule une contrainte d'unicité ferme la fenêtre. L'index est construit sans bloquer les écritures,
+-- puis rattaché à une contrainte en V12. Échoue si des doublons existent déjà (à dédoublonner avant).
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS uq_tasks_title
+    ON tasks (title);
+
+-- Redondant avec l'index unique
+DROP INDEX CONCURRENTLY IF EXISTS idx_tasks_title;
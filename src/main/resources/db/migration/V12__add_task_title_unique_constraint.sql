@@ -0,0 +1,6 @@
+-- Migration: Contrainte d'unicité du titre des tâches
+-- Version: V12__add_task_title_unique_constraint.sql
+
+-- Réutilise l'index construit en V11 : aucune reconstruction, verrou de courte durée
+ALTER TABLE tasks
+    ADD CONSTRAINT uq_tasks_title UNIQUE USING INDEX uq_tasks_title;
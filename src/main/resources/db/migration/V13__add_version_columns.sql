@@ -0,0 +1,10 @@
+-- Migration: Versions pour le verrouillage optimiste et les ETags
+-- Version: V13__add_version_columns.sql
+
+-- Incrémentées par Hibernate (@Version) à chaque modification d'une tâche ou d'un utilisateur
+ALTER TABLE tasks ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE users ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+-- Compteur de modifications des tâches d'un utilisateur : avec la version de l'utilisateur,
+-- il sert d'ETag aux listes de ses tâches, sans relire les tâches
+ALTER TABLE user_task_stats ADD COLUMN changes BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,12 @@
+-- Migration: Unicité des emails sans tenir compte de la casse, garantie par la base
+-- Version: V14__add_users_lower_email_unique_index.sql
+
+-- Le filtre d'existence des emails peut manquer une clé (insertion sur une autre instance,
+-- insertion pendant sa reconstruction) et le contrôle existsByEmailIgnoreCase est alors sauté :
+-- seul un index unique sur lower(email) empêche un doublon ne différant que par la casse.
+-- Construit sans bloquer les écritures ; échoue si de tels doublons existent déjà (à dédoublonner avant).
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS uq_users_lower_email
+    ON users (lower(email));
+
+-- Redondant avec l'index unique
+DROP INDEX CONCURRENTLY IF EXISTS idx_users_lower_email;
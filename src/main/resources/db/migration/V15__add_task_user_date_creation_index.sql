@@ -0,0 +1,8 @@
+-- Migration: Index de la pagination par curseur des tâches d'un utilisateur triées par date de création
+-- Version: V15__add_task_user_date_creation_index.sql
+
+-- Curseur (dateCreation, id) de GET /api/tasks/user/{userId}/scroll?sortBy=dateCreation :
+-- idx_tasks_user_id_done_date_creation ne sert pas sans filtre sur done, et le départage par id
+-- demande la colonne en fin d'index. Parcouru dans les deux sens (tri croissant ou décroissant).
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_user_id_date_creation_id
+    ON tasks (user_id, date_creation, id);
@@ -0,0 +1,7 @@
+-- Migration: Ajout de la version des tokens JWT par utilisateur
+-- Version: V4__alter_users_table_add_token_version.sql
+
+-- Incrémentée à chaque changement de mot de passe, de rôle, désactivation ou suppression :
+-- les tokens émis avec une version antérieure sont alors refusés.
+ALTER TABLE users
+    ADD COLUMN token_version INTEGER NOT NULL DEFAULT 0;
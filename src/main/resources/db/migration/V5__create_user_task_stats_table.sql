@@ -0,0 +1,18 @@
+-- Migration: Compteurs de tâches par utilisateur maintenus par TaskService
+-- Version: V5__create_user_task_stats_table.sql
+
+-- Évite un COUNT(*) sur tasks pour chaque page : le nombre de tâches en attente vaut total - done
+CREATE TABLE user_task_stats (
+    user_id BIGINT PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    total BIGINT NOT NULL DEFAULT 0,
+    done BIGINT NOT NULL DEFAULT 0
+);
+
+-- Initialisation à partir des tâches existantes
+INSERT INTO user_task_stats (user_id, total, done)
+SELECT u.id,
+       COUNT(t.id),
+       COALESCE(SUM(CASE WHEN t.done THEN 1 ELSE 0 END), 0)
+FROM users u
+LEFT JOIN tasks t ON t.user_id = u.id
+GROUP BY u.id;
@@ -0,0 +1,22 @@
+-- Migration: Index des chemins de lecture fréquents
+-- Version: V6__add_hot_path_indexes.sql
+
+-- CONCURRENTLY : pas de verrou d'écriture sur les tables pendant la construction.
+-- Flyway exécute cette migration hors transaction (uniquement des CREATE INDEX CONCURRENTLY).
+
+-- Tâches d'un utilisateur triées par id (pagination, curseur), contrôles de propriété,
+-- et suppression d'un utilisateur (clé étrangère tasks.user_id)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_user_id_id
+    ON tasks (user_id, id);
+
+-- Tâches d'un utilisateur filtrées par statut et triées par date de création
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_user_id_done_date_creation
+    ON tasks (user_id, done, date_creation);
+
+-- Recherche d'un email sans tenir compte de la casse
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_lower_email
+    ON users (lower(email));
+
+-- Contrôle d'unicité du titre à la création d'une tâche (findByTitle)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_title
+    ON tasks (title);
@@ -0,0 +1,10 @@
+-- Migration: Index des filtres de recherche des tâches (GET /api/tasks)
+-- Version: V7__add_task_filter_indexes.sql
+
+-- Préfixe de titre (LIKE 'abc%') : text_pattern_ops rend l'index utilisable quelle que soit la collation
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_title_pattern
+    ON tasks (title text_pattern_ops);
+
+-- Plage de dates de création sans filtre utilisateur (administrateur)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_date_creation
+    ON tasks (date_creation);
@@ -0,0 +1,10 @@
+-- Migration: Recherche plein texte sur le titre et la description des tâches
+-- Version: V8__alter_tasks_table_add_search_vector.sql
+
+-- Colonne générée : maintenue par PostgreSQL à chaque écriture, jamais par l'application.
+-- Le titre (poids A) pèse plus que la description (poids B) dans le classement.
+ALTER TABLE tasks
+    ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('french', coalesce(title, '')), 'A')
+            || setweight(to_tsvector('french', coalesce(description, '')), 'B')
+    ) STORED;
@@ -0,0 +1,6 @@
+-- Migration: Index GIN de la recherche plein texte des tâches
+-- Version: V9__add_task_search_vector_index.sql
+
+-- Migration séparée de V8 : CREATE INDEX CONCURRENTLY s'exécute hors transaction
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_tasks_search_vector
+    ON tasks USING GIN (search_vector);
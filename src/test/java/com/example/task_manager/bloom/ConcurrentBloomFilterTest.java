@@ -0,0 +1,57 @@
+package com.example.task_manager.bloom;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentBloomFilterTest {
+
+    @Test
+    void mightContain_noFalseNegativeAndBoundedFalsePositives() {
+        ConcurrentBloomFilter filter = new ConcurrentBloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("present-" + i));
+
+        assertTrue(IntStream.range(0, 10_000).allMatch(i -> filter.mightContain("present-" + i)));
+
+        long falsePositives = IntStream.range(0, 100_000).filter(i -> filter.mightContain("absent-" + i)).count();
+        assertTrue(falsePositives < 2_000, "Faux positifs : " + falsePositives);
+        assertTrue(filter.expectedFalsePositiveRate() < 0.02);
+    }
+
+    @Test
+    void sizing_followsCapacityAndRate() {
+        ConcurrentBloomFilter filter = new ConcurrentBloomFilter(1_000_000, 0.01);
+
+        // ~9,6 bits par élément et 7 fonctions de hachage pour 1 %
+        assertEquals(7, filter.hashFunctions());
+        assertTrue(filter.sizeInBytes() > 1_150_000 && filter.sizeInBytes() < 1_250_000);
+        assertEquals(0, filter.bitCount());
+        assertEquals(0.0, filter.expectedFalsePositiveRate());
+    }
+
+    @Test
+    void put_concurrentWritersLoseNoBit() throws InterruptedException {
+        ConcurrentBloomFilter filter = new ConcurrentBloomFilter(40_000, 0.01);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            int offset = t * 10_000;
+            executor.execute(() -> IntStream.range(offset, offset + 10_000).forEach(i -> filter.put("key-" + i)));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertTrue(IntStream.range(0, 40_000).allMatch(i -> filter.mightContain("key-" + i)));
+    }
+
+    @Test
+    void constructor_rejectsInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentBloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentBloomFilter(100, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentBloomFilter(100, 1));
+    }
+}
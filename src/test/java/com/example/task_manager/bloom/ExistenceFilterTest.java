@@ -0,0 +1,73 @@
+package com.example.task_manager.bloom;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExistenceFilterTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    private final ExistenceFilter filter = new ExistenceFilter("emails", 1_000, 0.01, registry) {
+        @Override
+        protected String normalize(String key) {
+            return key.toLowerCase(Locale.ROOT);
+        }
+    };
+
+    private double checks(String result) {
+        return registry.get("existence.filter.checks").tag("filter", "emails").tag("result", result).counter().count();
+    }
+
+    @Test
+    void exists_beforeFirstBuild_alwaysAsksTheDatabase() {
+        AtomicInteger queries = new AtomicInteger();
+
+        assertFalse(filter.exists("new@example.com", key -> queries.incrementAndGet() < 0));
+        assertEquals(1, queries.get());
+    }
+
+    @Test
+    void exists_absentKeySkipsTheDatabase() {
+        filter.rebuild(1, Stream.of("Known@Example.com"));
+
+        assertFalse(filter.exists("new@example.com", key -> fail("La base ne doit pas être consultée")));
+        assertTrue(filter.exists("KNOWN@example.com", key -> true));
+        assertEquals(1, checks("absent"));
+        assertEquals(1, checks("present"));
+    }
+
+    @Test
+    void add_isVisibleImmediatelyAndForgottenByRebuild() {
+        filter.rebuild(0, Stream.empty());
+        filter.add("added@example.com");
+        assertTrue(filter.exists("added@example.com", key -> true));
+
+        // La reconstruction repart de la base : une clé supprimée entre-temps est oubliée
+        filter.rebuild(0, Stream.empty());
+        assertFalse(filter.exists("added@example.com", key -> fail("La base ne doit pas être consultée")));
+    }
+
+    @Test
+    void existing_queriesOnlyCandidatesAndCountsFalsePositives() {
+        filter.rebuild(2, Stream.of("a@example.com", "b@example.com"));
+
+        Set<String> found = filter.existing(List.of("a@example.com", "b@example.com", "c@example.com"), candidates -> {
+            assertFalse(candidates.contains("c@example.com"));
+            return List.of("a@example.com");
+        });
+
+        assertEquals(Set.of("a@example.com"), found);
+        assertEquals(1, checks("present"));
+        assertEquals(1, checks("false_positive"));
+        assertTrue(registry.get("existence.filter.size").gauge().value() > 0);
+    }
+}
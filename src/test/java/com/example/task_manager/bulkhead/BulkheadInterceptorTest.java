@@ -0,0 +1,129 @@
+package com.example.task_manager.bulkhead;
+
+import com.example.task_manager.exception.BulkheadFullException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BulkheadInterceptorTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    static class SampleController {
+
+        @Bulkhead(TrafficClass.ADMIN)
+        public void listAll() {
+        }
+
+        public void findOne() {
+        }
+    }
+
+    @Bulkhead(TrafficClass.BULK)
+    static class SampleBulkController {
+
+        public void export() {
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        TrafficClassHolder.clear();
+    }
+
+    private BulkheadInterceptor interceptor(int adminPermits, List<BulkheadProperties.Route> routes) {
+        BulkheadProperties properties = new BulkheadProperties(true, 1, Map.of(
+                TrafficClass.ADMIN, new BulkheadProperties.Compartment(adminPermits, Duration.ZERO, 2)
+        ), routes);
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", meterRegistry);
+        ObjectProvider<MeterRegistry> provider = beanFactory.getBeanProvider(MeterRegistry.class);
+        return new BulkheadInterceptor(properties, provider);
+    }
+
+    private static HandlerMethod handler(Object controller, String method) throws NoSuchMethodException {
+        return new HandlerMethod(controller, controller.getClass().getMethod(method));
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        return request;
+    }
+
+    @Test
+    void resolve_methodAnnotation() throws Exception {
+        assertEquals(TrafficClass.ADMIN, interceptor(1, List.of())
+                .resolve(request("GET", "/api/tasks/all"), handler(new SampleController(), "listAll")));
+    }
+
+    @Test
+    void resolve_classAnnotation() throws Exception {
+        assertEquals(TrafficClass.BULK, interceptor(1, List.of())
+                .resolve(request("GET", "/api/export"), handler(new SampleBulkController(), "export")));
+    }
+
+    @Test
+    void resolve_routeThenInteractive() throws Exception {
+        BulkheadInterceptor interceptor = interceptor(1, List.of(
+                new BulkheadProperties.Route("/api/reports/**", "GET", TrafficClass.BULK)));
+        HandlerMethod findOne = handler(new SampleController(), "findOne");
+
+        assertEquals(TrafficClass.BULK, interceptor.resolve(request("GET", "/api/reports/daily"), findOne));
+        assertEquals(TrafficClass.INTERACTIVE, interceptor.resolve(request("POST", "/api/reports/daily"), findOne));
+        assertEquals(TrafficClass.INTERACTIVE, interceptor.resolve(request("GET", "/api/tasks/1"), findOne));
+    }
+
+    @Test
+    void saturatedCompartment_rejectsOnlyItsOwnClass() throws Exception {
+        BulkheadInterceptor interceptor = interceptor(1, List.of());
+        HandlerMethod listAll = handler(new SampleController(), "listAll");
+        HandlerMethod findOne = handler(new SampleController(), "findOne");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        MockHttpServletRequest first = request("GET", "/api/tasks/all");
+        interceptor.preHandle(first, response, listAll);
+        assertEquals(TrafficClass.ADMIN, TrafficClassHolder.get());
+
+        BulkheadFullException ex = assertThrows(BulkheadFullException.class,
+                () -> interceptor.preHandle(request("GET", "/api/tasks/all"), response, listAll));
+        assertEquals(TrafficClass.ADMIN, ex.getTrafficClass());
+        assertEquals(1, meterRegistry.get("bulkhead.rejected").tag("class", "admin").counter().count());
+
+        // Les requêtes interactives ne sont pas limitées par le compartiment d'administration
+        interceptor.preHandle(request("GET", "/api/tasks/1"), response, findOne);
+        assertEquals(TrafficClass.INTERACTIVE, TrafficClassHolder.get());
+
+        interceptor.afterCompletion(first, response, listAll, null);
+        assertNull(TrafficClassHolder.get());
+        interceptor.preHandle(request("GET", "/api/tasks/all"), response, listAll);
+    }
+
+    @Test
+    void disabled_noLimitNorClass() throws Exception {
+        BulkheadInterceptor interceptor = new BulkheadInterceptor(
+                new BulkheadProperties(false, 1, Map.of(
+                        TrafficClass.ADMIN, new BulkheadProperties.Compartment(1, Duration.ZERO, null)), List.of()),
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+        HandlerMethod listAll = handler(new SampleController(), "listAll");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request("GET", "/api/tasks/all"), response, listAll);
+        interceptor.preHandle(request("GET", "/api/tasks/all"), response, listAll);
+        assertNull(TrafficClassHolder.get());
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.task_manager.bulkhead;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TrafficClassDataSourceTest {
+
+    private final DataSource defaultPool = mock(DataSource.class);
+    private final DataSource adminPool = mock(DataSource.class);
+    private final Connection defaultConnection = mock(Connection.class);
+    private final Connection adminConnection = mock(Connection.class);
+
+    private final TrafficClassDataSource dataSource =
+            new TrafficClassDataSource(defaultPool, Map.of(TrafficClass.ADMIN, adminPool));
+
+    @AfterEach
+    void tearDown() {
+        TrafficClassHolder.clear();
+    }
+
+    @Test
+    void dedicatedClass_usesItsOwnPool() throws Exception {
+        when(adminPool.getConnection()).thenReturn(adminConnection);
+        TrafficClassHolder.set(TrafficClass.ADMIN);
+
+        assertSame(adminConnection, dataSource.getConnection());
+    }
+
+    @Test
+    void classWithoutPool_usesDefaultPool() throws Exception {
+        when(defaultPool.getConnection()).thenReturn(defaultConnection);
+        TrafficClassHolder.set(TrafficClass.BULK);
+
+        assertSame(defaultConnection, dataSource.getConnection());
+    }
+
+    @Test
+    void outsideRequest_usesDefaultPool() throws Exception {
+        when(defaultPool.getConnection()).thenReturn(defaultConnection);
+
+        assertSame(defaultConnection, dataSource.getConnection());
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.task_manager.controller;
+
+import com.example.task_manager.entity.Task;
+import com.example.task_manager.entity.User;
+import com.example.task_manager.enumeration.Role;
+import com.example.task_manager.repository.TaskRepository;
+import com.example.task_manager.repository.UserRepository;
+import com.example.task_manager.repository.UserTaskStatsRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Connexions JDBC obtenues par requête HTTP : sans Open Session In View, chaque endpoint
+ * s'exécute dans une seule transaction de service et rend sa connexion avant la sérialisation.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "bulkhead.enabled=true"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "ADMIN")
+public class ConnectionUsageTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserTaskStatsRepository userTaskStatsRepository;
+
+    private Statistics statistics;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.save(User.builder()
+                .name("user")
+                .email("user@example.com")
+                .password("encoded_password")
+                .role(Role.USER)
+                .build());
+        userId = user.getId();
+        taskRepository.save(Task.builder()
+                .title("Task")
+                .description("Description")
+                .user(user)
+                .build());
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAllInBatch();
+        userTaskStatsRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    private void assertSingleConnection(RequestBuilder request) throws Exception {
+        statistics.clear();
+        mockMvc.perform(request).andExpect(status().isOk());
+        assertEquals(1, statistics.getConnectCount(), "Connexions obtenues pour la requête");
+    }
+
+    @Test
+    void openInView_disabled() {
+        assertEquals(0, context.getBeanNamesForType(OpenEntityManagerInViewInterceptor.class).length);
+    }
+
+    @Test
+    void getUserById_singleConnection() throws Exception {
+        assertSingleConnection(get("/api/users/{id}", userId));
+    }
+
+    @Test
+    void scrollTasksByUser_singleConnection() throws Exception {
+        assertSingleConnection(get("/api/tasks/user/{userId}/scroll?size=20", userId));
+    }
+
+    @Test
+    void updateUser_readAndWriteOnOneConnection() throws Exception {
+        assertSingleConnection(patch("/api/users/update/{id}", userId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"renamed\",\"email\":\"renamed@example.com\"}"));
+    }
+
+    private long poolUsages(String pool) {
+        Timer usage = meterRegistry.find("hikaricp.connections.usage").tag("pool", pool).timer();
+        return usage == null ? 0 : usage.count();
+    }
+
+    @Test
+    void adminListing_usesAdminPoolOnly() throws Exception {
+        long admin = poolUsages("task-manager-primary-admin");
+        long interactive = poolUsages("task-manager-primary");
+
+        mockMvc.perform(get("/api/users/all")).andExpect(status().isOk());
+
+        assertEquals(admin + 1, poolUsages("task-manager-primary-admin"));
+        assertEquals(interactive, poolUsages("task-manager-primary"));
+    }
+}
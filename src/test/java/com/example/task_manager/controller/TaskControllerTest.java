@@ -1,9 +1,14 @@
 package com.example.task_manager.controller;
 
 import com.example.task_manager.config.SecurityConfig;
+import com.example.task_manager.dto.Versioned;
 import com.example.task_manager.dto.task.CreateTaskDto;
+import com.example.task_manager.dto.task.TaskFilterDto;
+import com.example.task_manager.dto.task.TaskPatchDto;
 import com.example.task_manager.dto.task.TaskResponseDto;
+import com.example.task_manager.dto.task.TaskVersionDto;
 import com.example.task_manager.dto.user.UserResponseDto;
+import com.example.task_manager.exception.PreconditionFailedException;
 import com.example.task_manager.exception.TaskAlreadyExistException;
 import com.example.task_manager.exception.TaskNotFoundException;
 import com.example.task_manager.exception.UserNotFoundException;
@@ -22,6 +27,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -29,11 +39,16 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -149,19 +164,76 @@ public class TaskControllerTest {
                 .andExpect(jsonPath("$.code", is(400)));
     }
 
+    @Test
+    @WithMockUser(roles = "USER")
+    void testSearchTasks_filtersBoundToService() throws Exception {
+        UserResponseDto userResponse = new UserResponseDto(1L, "Joel", "joel@example.com", "USER");
+        TaskResponseDto taskResponse = new TaskResponseDto(1L, "Titre Test", "Description Test", false, userResponse);
+        TaskFilterDto expectedFilter = new TaskFilterDto(
+                false, 1L, Instant.parse("2025-01-01T00:00:00Z"), null, "Tit");
+
+        when(taskService.search(eq(expectedFilter), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(taskResponse)));
+
+        mockMvc.perform(get("/api/tasks")
+                        .param("done", "false")
+                        .param("userId", "1")
+                        .param("createdAfter", "2025-01-01T00:00:00Z")
+                        .param("title", "Tit")
+                        .param("sortBy", "dateCreation"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.content[0].title", is("Titre Test")))
+                .andExpect(jsonPath("$.data.totalElements", is(1)));
+
+        verify(taskService).search(eq(expectedFilter), eq(PageRequest.of(0, 5, Sort.by("dateCreation"))));
+    }
+
     @Test
     @WithMockUser(roles = "USER")
     void testGetTaskById_success() throws Exception {
         UserResponseDto userResponse = new UserResponseDto(1L, "Joel", "joel@example.com", "ROLE_USER");
         TaskResponseDto taskResponse = new TaskResponseDto(1L, "Titre Test", "Description Test", false, userResponse);
 
-        when(taskService.findById(1L)).thenReturn(taskResponse);
+        when(taskService.findById(1L)).thenReturn(new Versioned<>(taskResponse, "\"3.1\""));
 
         mockMvc.perform(get("/api/tasks/{id}", 1L))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3.1\""))
                 .andExpect(jsonPath("$.data.id", is(1)))
                 .andExpect(jsonPath("$.message", containsString("succès")))
                 .andExpect(jsonPath("$.code", is(200)));
+
+        // Sans If-None-Match, pas de lecture des seules versions
+        verify(taskService, never()).findVersion(any());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testGetTaskById_notModified() throws Exception {
+        when(taskService.findVersion(1L)).thenReturn(new TaskVersionDto(1L, 3, 1));
+
+        mockMvc.perform(get("/api/tasks/{id}", 1L).header(HttpHeaders.IF_NONE_MATCH, "\"3.1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3.1\""))
+                .andExpect(content().string(""));
+
+        // Ni chargement ni sérialisation de la tâche
+        verify(taskService, never()).findById(any());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testGetTaskById_staleETag() throws Exception {
+        UserResponseDto userResponse = new UserResponseDto(1L, "Joel", "joel@example.com", "ROLE_USER");
+        TaskResponseDto taskResponse = new TaskResponseDto(1L, "Titre Test", "Description Test", true, userResponse);
+
+        when(taskService.findVersion(1L)).thenReturn(new TaskVersionDto(1L, 4, 1));
+        when(taskService.findById(1L)).thenReturn(new Versioned<>(taskResponse, "\"4.1\""));
+
+        mockMvc.perform(get("/api/tasks/{id}", 1L).header(HttpHeaders.IF_NONE_MATCH, "\"3.1\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4.1\""))
+                .andExpect(jsonPath("$.data.done", is(true)));
     }
 
     @Test
@@ -198,7 +270,7 @@ public class TaskControllerTest {
         UserResponseDto userResponse = new UserResponseDto(userId, "Joel", "joel@example.com", "ROLE_USER");
         TaskResponseDto updatedTask = new TaskResponseDto(1L, "Titre Update", "Desc", true, userResponse);
 
-        when(taskService.update(eq(1L), any(CreateTaskDto.class))).thenReturn(updatedTask);
+        when(taskService.update(eq(1L), any(CreateTaskDto.class), any())).thenReturn(updatedTask);
 
         mockMvc.perform(patch("/api/tasks/update/{id}", 1L)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -250,7 +322,7 @@ public class TaskControllerTest {
         updateDto.setDescription("Desc");
         updateDto.setUserId(1L);
 
-        when(taskService.update(eq(99L), any(CreateTaskDto.class))).thenThrow(new TaskNotFoundException(99L));
+        when(taskService.update(eq(99L), any(CreateTaskDto.class), any())).thenThrow(new TaskNotFoundException(99L));
 
         mockMvc.perform(patch("/api/tasks/update/{id}", 99L)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -269,7 +341,7 @@ public class TaskControllerTest {
         updateDto.setDescription("Desc");
         updateDto.setUserId(99L);
 
-        when(taskService.update(eq(1L), any(CreateTaskDto.class))).thenThrow(new UserNotFoundException(99L));
+        when(taskService.update(eq(1L), any(CreateTaskDto.class), any())).thenThrow(new UserNotFoundException(99L));
 
         mockMvc.perform(patch("/api/tasks/update/{id}", 1L)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -280,10 +352,76 @@ public class TaskControllerTest {
                 .andExpect(jsonPath("$.code", is(404)));
     }
 
+    @Test
+    @WithMockUser(roles = "USER")
+    void testPatchTask_onlyPresentFieldsForwarded() throws Exception {
+        UserResponseDto userResponse = new UserResponseDto(1L, "Joel", "joel@example.com", "ROLE_USER");
+        TaskResponseDto patchedTask = new TaskResponseDto(1L, "Nouveau titre", "Desc", false, userResponse);
+
+        when(taskService.patch(eq(1L), any(TaskPatchDto.class), any())).thenReturn(patchedTask);
+
+        mockMvc.perform(patch("/api/tasks/{id}", 1L)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"title\": \"Nouveau titre\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.title", is("Nouveau titre")))
+                .andExpect(jsonPath("$.code", is(200)));
+
+        verify(taskService).patch(eq(1L), argThat(patch -> patch.isTitlePresent()
+                && !patch.isDescriptionPresent() && !patch.isDonePresent() && !patch.isUserIdPresent()), isNull());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testPatchTask_ifMatchStale() throws Exception {
+        when(taskService.patch(eq(1L), any(TaskPatchDto.class), eq(3L)))
+                .thenThrow(new PreconditionFailedException("tâche", 1L));
+
+        mockMvc.perform(patch("/api/tasks/{id}", 1L)
+                        .header(HttpHeaders.IF_MATCH, "\"3.1\"")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"title\": \"Nouveau titre\"}"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.code", is(412)));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testPatchTask_nullRequiredField() throws Exception {
+        mockMvc.perform(patch("/api/tasks/{id}", 1L)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"description\": null}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code", is(400)));
+
+        verify(taskService, never()).patch(any(), any(), any());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testToggleTaskDone_success() throws Exception {
+        mockMvc.perform(patch("/api/tasks/{id}/toggle-done", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is(true)))
+                .andExpect(jsonPath("$.code", is(200)));
+
+        verify(taskService).toggleDone(1L, null);
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void testToggleTaskDone_taskNotFound() throws Exception {
+        doThrow(new TaskNotFoundException(99L)).when(taskService).toggleDone(99L, null);
+
+        mockMvc.perform(patch("/api/tasks/{id}/toggle-done", 99L))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code", is(404)));
+    }
+
     @Test
     @WithMockUser(roles = "USER")
     void testDeleteTask_success() throws Exception {
-        doNothing().when(taskService).delete(1L);
+        doNothing().when(taskService).delete(1L, null);
 
         mockMvc.perform(delete("/api/tasks/{id}", 1L))
                 .andExpect(status().isOk())
@@ -295,7 +433,7 @@ public class TaskControllerTest {
     @Test
     @WithMockUser(roles = "USER")
     void testDeleteTask_taskNotFound() throws Exception {
-        doThrow(new TaskNotFoundException(99L)).when(taskService).delete(99L);
+        doThrow(new TaskNotFoundException(99L)).when(taskService).delete(99L, null);
 
         mockMvc.perform(delete("/api/tasks/{id}", 99L))
                 .andExpect(status().isNotFound())
@@ -0,0 +1,163 @@
+package com.example.task_manager.controller;
+
+import com.example.task_manager.entity.Task;
+import com.example.task_manager.entity.User;
+import com.example.task_manager.enumeration.Role;
+import com.example.task_manager.repository.TaskRepository;
+import com.example.task_manager.repository.UserRepository;
+import com.example.task_manager.repository.UserTaskStatsRepository;
+import com.example.task_manager.service.TaskStatsReconciler;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Nombre de requêtes SQL émises par les endpoints de lecture des tâches et par la création.
+ * Plusieurs utilisateurs possèdent des tâches : un N+1 sur Task.user ferait échouer le test.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(roles = "ADMIN")
+public class TaskQueryCountTest {
+
+    private static final int USERS = 3;
+    private static final int TASKS_PER_USER = 4;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserTaskStatsRepository userTaskStatsRepository;
+
+    @Autowired
+    private TaskStatsReconciler taskStatsReconciler;
+
+    private Statistics statistics;
+    private Long userId;
+    private Long taskId;
+
+    @BeforeEach
+    void setUp() {
+        for (int u = 0; u < USERS; u++) {
+            User user = userRepository.save(User.builder()
+                    .name("user" + u)
+                    .email("user" + u + "@example.com")
+                    .password("encoded_password")
+                    .role(Role.USER)
+                    .build());
+            userId = user.getId();
+            for (int t = 0; t < TASKS_PER_USER; t++) {
+                taskId = taskRepository.save(Task.builder()
+                        .title("Task " + u + "-" + t)
+                        .description("Description")
+                        .user(user)
+                        .build()).getId();
+            }
+        }
+        taskStatsReconciler.reconcile();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskRepository.deleteAllInBatch();
+        userTaskStatsRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    private void assertStatements(long expected, String url, Object... uriVariables) throws Exception {
+        statistics.clear();
+        mockMvc.perform(get(url, uriVariables)).andExpect(status().isOk());
+        assertEquals(expected, statistics.getPrepareStatementCount(), "Requêtes SQL émises par GET " + url);
+    }
+
+    private void assertNotModifiedStatements(long expected, String etag, String url, Object... uriVariables)
+            throws Exception {
+        statistics.clear();
+        mockMvc.perform(get(url, uriVariables).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        assertEquals(expected, statistics.getPrepareStatementCount(), "Requêtes SQL émises par GET 304 " + url);
+    }
+
+    // INSERT de la tâche, UPDATE des compteurs, puis lecture de l'utilisateur pour la réponse :
+    // ni lecture préalable de l'utilisateur ni contrôle du titre avant l'insertion
+    @Test
+    void createTask_insertCountersThenOwner() throws Exception {
+        statistics.clear();
+        mockMvc.perform(post("/api/tasks/create")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"userId\":" + userId + ",\"title\":\"New task\",\"description\":\"Description\","
+                                + "\"done\":false}"))
+                .andExpect(status().is2xxSuccessful());
+        assertEquals(3, statistics.getPrepareStatementCount(), "Requêtes SQL émises par POST /api/tasks/create");
+    }
+
+    @Test
+    void getAllTasks_projectionAndCounter() throws Exception {
+        assertStatements(2, "/api/tasks/all?size=20");
+    }
+
+    @Test
+    void getTaskById_singleProjection() throws Exception {
+        assertStatements(1, "/api/tasks/{id}", taskId);
+    }
+
+    @Test
+    void getTaskById_notModifiedReadsVersionsOnly() throws Exception {
+        String etag = taskRepository.findVersionById(taskId, null).orElseThrow().etag();
+        assertNotModifiedStatements(1, etag, "/api/tasks/{id}", taskId);
+    }
+
+    @Test
+    void getTasksByUser_notModifiedReadsCountersOnly() throws Exception {
+        String etag = userTaskStatsRepository.findListVersionByUserId(userId).orElseThrow().etag();
+        assertNotModifiedStatements(1, etag, "/api/tasks/user/{userId}?size=20", userId);
+    }
+
+    @Test
+    void getTasksByUser_projectionAndCounter() throws Exception {
+        assertStatements(2, "/api/tasks/user/{userId}?size=20", userId);
+    }
+
+    @Test
+    void getTaskStatsByUser_counterOnly() throws Exception {
+        assertStatements(1, "/api/tasks/user/{userId}/stats", userId);
+    }
+
+    @Test
+    void scrollAllTasks_usersFetchedWithTasks() throws Exception {
+        assertStatements(1, "/api/tasks/scroll?size=20");
+    }
+
+    @Test
+    void scrollTasksByUser_tasksOnly() throws Exception {
+        assertStatements(1, "/api/tasks/user/{userId}/scroll?size=20", userId);
+    }
+}
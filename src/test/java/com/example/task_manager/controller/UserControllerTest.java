@@ -1,6 +1,7 @@
 package com.example.task_manager.controller;
 
 import com.example.task_manager.config.SecurityConfig;
+import com.example.task_manager.dto.Versioned;
 import com.example.task_manager.dto.user.CreateUserDto;
 import com.example.task_manager.dto.user.UpdateUserDto;
 import com.example.task_manager.dto.user.UserResponseDto;
@@ -84,7 +85,7 @@ public class UserControllerTest {
         Long userId = 1L;
         UserResponseDto userDto = new UserResponseDto(userId, "Alice", "alice@example.com", "USER");
 
-        when(userService.findById(userId)).thenReturn(userDto);
+        when(userService.findById(userId)).thenReturn(new Versioned<>(userDto, "\"0\""));
 
         mockMvc.perform(get("/api/users/{id}", userId))
                 .andExpect(status().isOk())
@@ -333,7 +334,7 @@ public class UserControllerTest {
         updateUserDto.setPassword("123456789");
         updateUserDto.setRole(Role.USER);
 
-        when(userService.update(eq(userId), any(UpdateUserDto.class)))
+        when(userService.update(eq(userId), any(UpdateUserDto.class), any()))
                 .thenReturn(userDto);
 
         mockMvc.perform(patch("/api/users/update/{id}", userId)
@@ -378,7 +379,7 @@ public class UserControllerTest {
         dto.setPassword("123456789");
         dto.setRole(Role.USER);
 
-        when(userService.update(eq(userId), any(UpdateUserDto.class)))
+        when(userService.update(eq(userId), any(UpdateUserDto.class), any()))
                 .thenThrow(new UserNotFoundException(userId));
 
         mockMvc.perform(patch("/api/users/update/{id}", userId)
@@ -411,7 +412,7 @@ public class UserControllerTest {
 
         Long userId = 1L;
 
-        doNothing().when(userService).delete(userId);
+        doNothing().when(userService).delete(userId, null);
 
         mockMvc.perform(delete("/api/users/{id}", userId))
                 .andExpect(status().isOk())
@@ -427,7 +428,7 @@ public class UserControllerTest {
         Long userId = 99L;
 
         doThrow(new UserNotFoundException(userId))
-                .when(userService).delete(userId);
+                .when(userService).delete(userId, null);
 
         mockMvc.perform(delete("/api/users/{id}", userId))
                 .andExpect(status().isNotFound())
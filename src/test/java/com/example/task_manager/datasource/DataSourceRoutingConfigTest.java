@@ -0,0 +1,75 @@
+package com.example.task_manager.datasource;
+
+import com.example.task_manager.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Routage branché sur JPA : le réplica pointe ici sur la même base H2, seul le pool diffère.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing;DB_CLOSE_DELAY=-1",
+        "datasource.routing.enabled=true",
+        "datasource.routing.replicas[0].url=jdbc:h2:mem:routing;DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles("test")
+public class DataSourceRoutingConfigTest {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private double connections(String route, String reason) {
+        return meterRegistry.get("datasource.routing.connections")
+                .tag("route", route)
+                .tag("reason", reason)
+                .counter()
+                .count();
+    }
+
+    @Test
+    void jpaReadOnlyTransaction_routedToReplica() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        double replicaBefore = connections("replica-0", "read-only");
+        double primaryBefore = connections("primary", "read-write");
+
+        readOnly.executeWithoutResult(status -> userRepository.count());
+
+        assertEquals(replicaBefore + 1, connections("replica-0", "read-only"));
+        assertEquals(primaryBefore, connections("primary", "read-write"));
+    }
+
+    @Test
+    void jpaReadWriteTransaction_routedToPrimary() {
+        double primaryBefore = connections("primary", "read-write");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> userRepository.count());
+
+        assertEquals(primaryBefore + 1, connections("primary", "read-write"));
+    }
+
+    @Test
+    void eachRoute_hasItsOwnPoolMetrics() {
+        // Un pool Hikari ne démarre (et n'enregistre ses métriques) qu'à sa première connexion
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> userRepository.count());
+
+        assertNotNull(meterRegistry.find("hikaricp.connections.max").tag("pool", "task-manager-primary").gauge());
+        assertNotNull(meterRegistry.find("hikaricp.connections.max").tag("pool", "task-manager-replica-0").gauge());
+    }
+}
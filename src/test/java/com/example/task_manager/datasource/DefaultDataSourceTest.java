@@ -0,0 +1,31 @@
+package com.example.task_manager.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+/**
+ * Sans routage ni cloisonnement activés, une seule source de données : le pool Hikari auto-configuré.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class DefaultDataSourceTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Test
+    void defaultConfiguration_singlePool() {
+        assertEquals(1, context.getBeansOfType(DataSource.class).size());
+        assertInstanceOf(HikariDataSource.class, context.getBean(DataSource.class));
+        assertEquals(0, context.getBeansOfType(ReadWriteRoutingDataSource.class).size());
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.task_manager.datasource;
+
+import com.example.task_manager.enumeration.Role;
+import com.example.task_manager.security.AuthenticatedUser;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Routage entre deux bases H2 distinctes : chacune contient une table qui indique son nom.
+ */
+public class ReadWriteRoutingDataSourceTest {
+
+    private static final Duration WINDOW = Duration.ofSeconds(5);
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    private static DataSource database(String name) {
+        DriverManagerDataSource dataSource =
+                new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table if not exists source (name varchar(20))");
+        jdbc.execute("delete from source");
+        jdbc.update("insert into source (name) values (?)", name);
+        return dataSource;
+    }
+
+    @BeforeEach
+    void setUp() {
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(WINDOW, 100, (Ticker) nanos::get);
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(
+                database("primary"),
+                List.of(database("replica-a"), database("replica-b")),
+                tracker,
+                meterRegistry
+        );
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private void authenticateAs(Long id) {
+        AuthenticatedUser principal = new AuthenticatedUser(id, "user" + id + "@example.com", Role.USER);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+
+    private String source(TransactionTemplate transaction) {
+        return transaction.execute(status -> jdbcTemplate.queryForObject("select name from source", String.class));
+    }
+
+    private double connections(String route, String reason) {
+        return meterRegistry.get("datasource.routing.connections")
+                .tag("route", route)
+                .tag("reason", reason)
+                .counter()
+                .count();
+    }
+
+    @Test
+    void readWriteTransaction_usesPrimary() {
+        // Le proxy lit une fois les réglages par défaut d'une connexion de la base primaire
+        source(readWrite);
+        double before = connections("primary", "read-write");
+        assertEquals("primary", source(readWrite));
+        assertEquals(before + 1, connections("primary", "read-write"));
+    }
+
+    @Test
+    void withoutTransaction_usesPrimary() {
+        assertEquals("primary", jdbcTemplate.queryForObject("select name from source", String.class));
+    }
+
+    @Test
+    void readOnlyTransactions_alternateBetweenReplicas() {
+        assertEquals("replica-a", source(readOnly));
+        assertEquals("replica-b", source(readOnly));
+        assertEquals("replica-a", source(readOnly));
+        assertEquals(2, connections("replica-0", "read-only"));
+        assertEquals(1, connections("replica-1", "read-only"));
+    }
+
+    @Test
+    void readsAfterCommittedWrite_pinnedToPrimaryForWriterOnly() {
+        authenticateAs(1L);
+        source(readWrite);
+        assertEquals("primary", source(readOnly));
+        assertEquals(1, connections("primary", "pinned"));
+
+        authenticateAs(2L);
+        assertEquals("replica-a", source(readOnly));
+    }
+
+    @Test
+    void pinnedReads_backToReplicasAfterWindow() {
+        authenticateAs(1L);
+        source(readWrite);
+        nanos.addAndGet(WINDOW.toNanos() + 1);
+        assertEquals("replica-a", source(readOnly));
+    }
+
+    @Test
+    void rolledBackWrite_doesNotPin() {
+        authenticateAs(1L);
+        readWrite.executeWithoutResult(status -> {
+            jdbcTemplate.update("update source set name = name");
+            status.setRollbackOnly();
+        });
+        assertEquals("replica-a", source(readOnly));
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.task_manager.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimeOrderedIdGeneratorTest {
+
+    private static final long NOW = TimeOrderedIdGenerator.EPOCH.toEpochMilli() + 1_000;
+
+    @Test
+    void nextId_isStrictlyIncreasingAndUnique() {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(3);
+        Set<Long> ids = new HashSet<>();
+        long previous = 0;
+        for (int i = 0; i < 20_000; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            assertTrue(ids.add(id));
+            previous = id;
+        }
+    }
+
+    @Test
+    void nextId_encodesTimestampNodeAndSequence() {
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(5, () -> NOW);
+
+        long first = generator.nextId();
+        long second = generator.nextId();
+
+        assertEquals(NOW, TimeOrderedIdGenerator.timestampOf(first).toEpochMilli());
+        assertEquals(5, (first >>> TimeOrderedIdGenerator.SEQUENCE_BITS) & TimeOrderedIdGenerator.MAX_NODE_ID);
+        assertEquals(0, first & 0xFFF);
+        assertEquals(1, second & 0xFFF);
+    }
+
+    @Test
+    void nextId_waitsForNextMillisecondWhenSequenceIsExhausted() {
+        AtomicLong clock = new AtomicLong(NOW);
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(0, () -> {
+            // L'horloge n'avance que lorsque le générateur l'interroge en boucle
+            return clock.get() == NOW ? NOW : clock.getAndIncrement();
+        });
+        for (int i = 0; i < 4096; i++) {
+            generator.nextId();
+        }
+        clock.set(NOW + 1);
+
+        long id = generator.nextId();
+
+        assertEquals(NOW + 1, TimeOrderedIdGenerator.timestampOf(id).toEpochMilli());
+        assertEquals(0, id & 0xFFF);
+    }
+
+    @Test
+    void nextId_rejectsLargeClockRollback() {
+        AtomicLong clock = new AtomicLong(NOW);
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(0, clock::get);
+        generator.nextId();
+        clock.set(NOW - 1_000);
+
+        assertThrows(IllegalStateException.class, generator::nextId);
+    }
+
+    @Test
+    void constructor_rejectsOutOfRangeNode() {
+        assertThrows(IllegalArgumentException.class, () -> new TimeOrderedIdGenerator(-1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new TimeOrderedIdGenerator(TimeOrderedIdGenerator.MAX_NODE_ID + 1));
+    }
+}
@@ -0,0 +1,331 @@
+package com.example.task_manager.repository;
+
+import com.example.task_manager.dto.task.TaskFilterDto;
+import com.example.task_manager.specification.TaskSpecifications;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Plans d'exécution des requêtes des repositories sur une base PostgreSQL migrée par Flyway et peuplée.
+ * Chaque cas appelle la vraie méthode de repository : les ordres SQL qu'elle envoie (générés par Hibernate
+ * ou écrits à la main) sont capturés avec leurs paramètres, puis passés à {@code EXPLAIN}.
+ * Échoue si un parcours séquentiel porte sur une table de plus de {@link #ROW_THRESHOLD} lignes :
+ * un index manquant ou une requête qui ne peut plus l'utiliser est détecté avant la production.
+ * Ignoré lorsque Docker n'est pas disponible.
+ */
+// Schéma issu des migrations Flyway, quel que soit le profil actif
+@DataJpaTest(properties = {"spring.flyway.enabled=true", "spring.jpa.hibernate.ddl-auto=none"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Import({TaskSearchRepository.class, QueryPlanRegressionTest.CaptureConfig.class})
+public class QueryPlanRegressionTest {
+
+    private static final long ROW_THRESHOLD = 1_000;
+    private static final int USERS = 2_000;
+    private static final int TASKS = 100_000;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    // Instance de test créée (et contexte Spring chargé) avant les callbacks @BeforeAll de Testcontainers :
+    // le conteneur doit déjà tourner. start() est sans effet lorsque l'extension le rappelle
+    static {
+        postgres.start();
+    }
+
+    @TestConfiguration
+    static class CaptureConfig {
+
+        @Bean
+        static StatementCapture statementCapture() {
+            return new StatementCapture();
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StatementCapture statementCapture;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserTaskStatsRepository userTaskStatsRepository;
+
+    @Autowired
+    private TaskSearchRepository taskSearchRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private long userId;
+    private long taskId;
+
+    // Une seule fois pour la classe, hors de la transaction (annulée) de chaque test : les données restent
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("""
+                INSERT INTO users (name, email, password, role, date_creation)
+                SELECT 'user' || g, 'user' || g || '@example.com', 'encoded_password', 'USER', now()
+                FROM generate_series(1, ?) g
+                """, USERS);
+        jdbcTemplate.update("""
+                INSERT INTO tasks (title, description, user_id, date_creation, done)
+                SELECT 'Task ' || g, 'Description', u.min_id + g % ?, now() - g * interval '1 second', g % 3 = 0
+                FROM generate_series(1, ?) g, (SELECT min(id) AS min_id FROM users) u
+                """, USERS, TASKS);
+        jdbcTemplate.update("""
+                INSERT INTO user_task_stats (user_id, total, done)
+                SELECT u.id, COUNT(t.id), COUNT(t.id) FILTER (WHERE t.done)
+                FROM users u LEFT JOIN tasks t ON t.user_id = u.id
+                GROUP BY u.id
+                """);
+        jdbcTemplate.execute("ANALYZE users");
+        jdbcTemplate.execute("ANALYZE tasks");
+        jdbcTemplate.execute("ANALYZE user_task_stats");
+        userId = jdbcTemplate.queryForObject("SELECT min(id) + 7 FROM users", Long.class);
+        taskId = jdbcTemplate.queryForObject("SELECT min(id) + 41 FROM tasks", Long.class);
+    }
+
+    // Appels réels des repositories. Les parcours complets voulus sont exclus : sumTotal, la réconciliation
+    // des compteurs et les flux de construction des filtres d'existence (streamAllTitles, streamAllEmails)
+    Stream<Arguments> repositoryCalls() {
+        Instant now = Instant.now();
+        return Stream.of(
+                call("TaskRepository.findById", () -> taskRepository.findById(taskId)),
+                call("TaskRepository.findByIdAndUserId", () -> taskRepository.findByIdAndUserId(taskId, userId)),
+                call("TaskRepository.findByTitle", () -> taskRepository.findByTitle("Task 42")),
+                call("TaskRepository.findVersionedById (propriétaire)",
+                        () -> taskRepository.findVersionedById(taskId, userId)),
+                call("TaskRepository.findVersionById (administrateur)",
+                        () -> taskRepository.findVersionById(taskId, null)),
+                call("TaskRepository.findAllByUser (tri par id)", () -> taskRepository.findAllByUser(
+                        userRepository.getReferenceById(userId), PageRequest.of(0, 5, Sort.by("id")))),
+                call("TaskRepository.findAllProjectedByUserId (tri par dateCreation)",
+                        () -> taskRepository.findAllProjectedByUserId(userId,
+                                PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "dateCreation")))),
+                call("TaskRepository.findAllProjectedBy (tri par id)",
+                        () -> taskRepository.findAllProjectedBy(PageRequest.of(10, 5, Sort.by("id")))),
+                call("TaskRepository.findAllByUserId (curseur, dateCreation)", () -> taskRepository.findAllByUserId(
+                        userId,
+                        ScrollPosition.forward(Map.of("dateCreation", now, "id", 10L)),
+                        Sort.by(Sort.Direction.DESC, "dateCreation").and(Sort.by("id")),
+                        Limit.of(5))),
+                call("TaskRepository.findSuggestionsByUserId", () -> taskRepository.findSuggestionsByUserId(userId)),
+                call("TaskRepository.findIdAndTitleByTitleIn",
+                        () -> taskRepository.findIdAndTitleByTitleIn(List.of("Task 42", "Task 4242"))),
+                call("TaskRepository.toggleDoneOwnedBy", () -> taskRepository.toggleDoneOwnedBy(taskId, userId, 0L)),
+                call("TaskRepository.findAll(Specification) : tâches en cours d'un utilisateur",
+                        () -> taskRepository.findAll(
+                                TaskSpecifications.matching(new TaskFilterDto(false, userId, null, null, null)),
+                                PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "dateCreation")))),
+                call("TaskRepository.findAll(Specification) : préfixe de titre", () -> taskRepository.findAll(
+                        TaskSpecifications.matching(new TaskFilterDto(null, null, null, null, "Task 4242")),
+                        PageRequest.of(0, 5, Sort.by("id")))),
+                call("TaskRepository.findAll(Specification) : plage de dates de création",
+                        () -> taskRepository.findAll(
+                                TaskSpecifications.matching(new TaskFilterDto(
+                                        null, null, now.minus(Duration.ofMinutes(10)), now, null)),
+                                PageRequest.of(0, 5, Sort.by("dateCreation")))),
+                call("TaskSearchRepository.search (index GIN)",
+                        () -> taskSearchRepository.search("4242", null, null, 10)),
+                call("UserRepository.findByEmail", () -> userRepository.findByEmail("user42@example.com")),
+                call("UserRepository.existsByEmailIgnoreCase",
+                        () -> userRepository.existsByEmailIgnoreCase("User42@Example.com")),
+                call("UserRepository.findActiveTokenVersionById",
+                        () -> userRepository.findActiveTokenVersionById(userId)),
+                call("UserTaskStatsRepository.increment", () -> userTaskStatsRepository.increment(userId, 1, 0)),
+                call("UserTaskStatsRepository.applyDoneToggle",
+                        () -> userTaskStatsRepository.applyDoneToggle(taskId)),
+                call("UserTaskStatsRepository.findListVersionByUserId",
+                        () -> userTaskStatsRepository.findListVersionByUserId(userId))
+        );
+    }
+
+    private static Arguments call(String method, Runnable call) {
+        return Arguments.of(method, call);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryCalls")
+    void noSequentialScanOnLargeTables(String method, Runnable call) throws Exception {
+        List<CapturedStatement> statements = statementCapture.during(call);
+        assertFalse(statements.isEmpty(), method + " : aucun ordre SQL capturé");
+
+        for (CapturedStatement statement : statements) {
+            String json = explain(statement);
+            JsonNode plan = objectMapper.readTree(json).get(0).get("Plan");
+
+            List<String> offending = new ArrayList<>();
+            collectSequentialScans(plan, offending);
+
+            assertTrue(offending.isEmpty(), method + " : parcours séquentiel sur " + offending
+                    + "\n" + statement.sql() + "\n" + json);
+        }
+    }
+
+    // Mêmes paramètres que l'exécution réelle : plan personnalisé, comme pour les premières exécutions du pilote
+    private String explain(CapturedStatement statement) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN (FORMAT JSON) " + statement.sql())) {
+                for (BoundParameter parameter : statement.parameters()) {
+                    parameter.bind(explain);
+                }
+                try (ResultSet resultSet = explain.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getString(1);
+                }
+            }
+        });
+    }
+
+    private void collectSequentialScans(JsonNode node, List<String> offending) {
+        if ("Seq Scan".equals(node.path("Node Type").asText())) {
+            String relation = node.path("Relation Name").asText();
+            Long rows = jdbcTemplate.queryForObject(
+                    "SELECT reltuples::bigint FROM pg_class WHERE relname = ?", Long.class, relation);
+            if (rows != null && rows > ROW_THRESHOLD) {
+                offending.add(relation + " (" + rows + " lignes)");
+            }
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectSequentialScans(child, offending);
+        }
+    }
+
+    record CapturedStatement(String sql, List<BoundParameter> parameters) {
+    }
+
+    // Appel d'un setter JDBC (setLong, setString, setTimestamp...), rejoué tel quel sur l'ordre EXPLAIN
+    record BoundParameter(Method setter, Object[] arguments) {
+
+        void bind(PreparedStatement statement) throws SQLException {
+            try {
+                setter.invoke(statement, arguments);
+            } catch (InvocationTargetException e) {
+                throw (SQLException) e.getCause();
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * Enveloppe la source de données pour enregistrer, pendant un appel, chaque ordre préparé exécuté
+     * et les paramètres qui lui ont été liés. Hors capture, les appels sont simplement délégués.
+     */
+    static class StatementCapture implements BeanPostProcessor {
+
+        private volatile List<CapturedStatement> captured;
+
+        List<CapturedStatement> during(Runnable call) {
+            List<CapturedStatement> statements = new ArrayList<>();
+            captured = statements;
+            try {
+                call.run();
+            } finally {
+                captured = null;
+            }
+            return statements;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            return bean instanceof DataSource dataSource ? dataSource(dataSource) : bean;
+        }
+
+        private DataSource dataSource(DataSource target) {
+            return proxy(DataSource.class, (proxy, method, args) -> {
+                Object result = delegate(target, method, args);
+                return result instanceof Connection connection ? connection(connection) : result;
+            });
+        }
+
+        private Connection connection(Connection target) {
+            return proxy(Connection.class, (proxy, method, args) -> {
+                Object result = delegate(target, method, args);
+                if (result instanceof PreparedStatement statement && "prepareStatement".equals(method.getName())) {
+                    return preparedStatement(statement, (String) args[0]);
+                }
+                return result;
+            });
+        }
+
+        private PreparedStatement preparedStatement(PreparedStatement target, String sql) {
+            List<BoundParameter> parameters = new ArrayList<>();
+            return proxy(PreparedStatement.class, (proxy, method, args) -> {
+                String name = method.getName();
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                    parameters.add(new BoundParameter(method, args));
+                } else if ("clearParameters".equals(name)) {
+                    parameters.clear();
+                } else if (name.startsWith("execute") && (args == null || args.length == 0)) {
+                    List<CapturedStatement> statements = captured;
+                    if (statements != null) {
+                        statements.add(new CapturedStatement(sql, List.copyOf(parameters)));
+                    }
+                }
+                return delegate(target, method, args);
+            });
+        }
+
+        private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+        }
+
+        private static Object delegate(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.task_manager.repository;
+
+import com.example.task_manager.dto.task.TaskFilterDto;
+import com.example.task_manager.dto.task.TaskResponseDto;
+import com.example.task_manager.dto.task.VersionedTaskResponseDto;
+import com.example.task_manager.entity.Task;
+import com.example.task_manager.entity.User;
+import com.example.task_manager.enumeration.Role;
+import com.example.task_manager.exception.InvalidPageRequestException;
+import com.example.task_manager.pagination.KeysetCursor;
+import com.example.task_manager.specification.TaskSpecifications;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+public class TaskRepositoryTest {
+
+    private static final KeysetCursor CURSOR = new KeysetCursor(Map.of(
+            "id", Long::valueOf,
+            "dateCreation", Instant::parse
+    ));
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .name("test")
+                .email("test@example.com")
+                .password("encoded_password")
+                .role(Role.USER)
+                .build());
+        for (int i = 0; i < 12; i++) {
+            taskRepository.save(Task.builder()
+                    .title("Task " + i)
+                    .description("Description " + i)
+                    .user(user)
+                    .build());
+        }
+    }
+
+    private List<String> scrollAllTitles(String sortBy, boolean ascending) {
+        List<String> titles = new ArrayList<>();
+        String cursor = null;
+        do {
+            Window<Task> window = taskRepository.findAllByUserId(
+                    user.getId(), CURSOR.position(cursor, sortBy), CURSOR.sort(sortBy, ascending), Limit.of(5));
+            window.forEach(task -> titles.add(task.getTitle()));
+            cursor = CURSOR.next(window, sortBy);
+        } while (cursor != null);
+        return titles;
+    }
+
+    @Test
+    public void testScrollByUser_visitsEveryTaskOnceById() {
+        List<String> titles = scrollAllTitles("id", true);
+
+        assertEquals(12, titles.size());
+        assertEquals("Task 0", titles.getFirst());
+        assertEquals("Task 11", titles.getLast());
+    }
+
+    @Test
+    public void testScrollByUser_descendingByDateCreation() {
+        List<String> titles = scrollAllTitles("dateCreation", false);
+
+        assertEquals(12, titles.size());
+        assertEquals(12, titles.stream().distinct().count());
+    }
+
+    @Test
+    public void testScroll_cursorRejectedForOtherSort() {
+        Window<Task> window = taskRepository.findAllBy(
+                CURSOR.position(null, "id"), CURSOR.sort("id", true), Limit.of(5));
+        String cursor = CURSOR.next(window, "id");
+
+        assertNotNull(cursor);
+        assertThrows(InvalidPageRequestException.class, () -> CURSOR.position(cursor, "dateCreation"));
+        assertThrows(InvalidPageRequestException.class, () -> CURSOR.sort("title", true));
+        assertThrows(InvalidPageRequestException.class, () -> CURSOR.position("not-a-cursor", "id"));
+    }
+
+    @Test
+    public void testProjectedByUser_selectsDtoColumnsWithSortAndSlice() {
+        Slice<TaskResponseDto> slice = taskRepository.findAllProjectedByUserId(
+                user.getId(), PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "id")));
+
+        assertEquals(5, slice.getNumberOfElements());
+        assertTrue(slice.hasNext());
+        TaskResponseDto first = slice.getContent().getFirst();
+        assertEquals("Task 11", first.title());
+        assertEquals(user.getId(), first.user().id());
+        assertEquals("test@example.com", first.user().email());
+        assertEquals("USER", first.user().role());
+
+        Long id = first.id();
+        VersionedTaskResponseDto versioned = taskRepository.findVersionedById(id, null).orElseThrow();
+        assertEquals("Task 11", versioned.task().title());
+        assertEquals(versioned.versioned().etag(), taskRepository.findVersionById(id, null).orElseThrow().etag());
+        assertTrue(taskRepository.findVersionedById(-1L, null).isEmpty());
+        assertTrue(taskRepository.findVersionById(-1L, null).isEmpty());
+
+        // Restriction au propriétaire portée par la requête elle-même
+        assertTrue(taskRepository.findVersionedById(id, user.getId()).isPresent());
+        assertTrue(taskRepository.findVersionedById(id, user.getId() + 1).isEmpty());
+        assertTrue(taskRepository.findVersionById(id, user.getId() + 1).isEmpty());
+        assertEquals(id, taskRepository.findByIdAndUserId(id, user.getId()).orElseThrow().getId());
+        assertTrue(taskRepository.findByIdAndUserId(id, user.getId() + 1).isEmpty());
+    }
+
+    @Test
+    public void testFindAllMatching_combinesOnlyPresentFilters() {
+        Task done = taskRepository.findByTitle("Task 3").orElseThrow();
+        done.setDone(true);
+        taskRepository.save(Task.builder()
+                .title("Task_%")
+                .description("Caractères spéciaux")
+                .user(user)
+                .build());
+
+        Page<Task> doneTasks = taskRepository.findAll(TaskSpecifications.matching(
+                new TaskFilterDto(true, user.getId(), null, null, null)), PageRequest.of(0, 20));
+        assertEquals(List.of("Task 3"), doneTasks.map(Task::getTitle).getContent());
+
+        Page<Task> prefixed = taskRepository.findAll(TaskSpecifications.matching(
+                new TaskFilterDto(null, null, null, null, "Task 1")), PageRequest.of(0, 20, Sort.by("title")));
+        assertEquals(List.of("Task 1", "Task 10", "Task 11"), prefixed.map(Task::getTitle).getContent());
+
+        // '_' et '%' sont des caractères littéraux dans le préfixe, pas des jokers
+        Page<Task> escaped = taskRepository.findAll(TaskSpecifications.matching(
+                new TaskFilterDto(null, null, null, null, "Task_")), PageRequest.of(0, 20));
+        assertEquals(List.of("Task_%"), escaped.map(Task::getTitle).getContent());
+
+        Page<Task> none = taskRepository.findAll(TaskSpecifications.matching(
+                new TaskFilterDto(null, null, Instant.now().plusSeconds(60), null, null)), PageRequest.of(0, 20));
+        assertTrue(none.isEmpty());
+
+        Page<Task> all = taskRepository.findAll(TaskSpecifications.matching(
+                new TaskFilterDto(null, null, null, null, null)), PageRequest.of(0, 5));
+        assertEquals(13, all.getTotalElements());
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.task_manager.repository;
+
+import com.example.task_manager.dto.CursorPageResponse;
+import com.example.task_manager.dto.task.TaskResponseDto;
+import com.example.task_manager.entity.Task;
+import com.example.task_manager.entity.User;
+import com.example.task_manager.enumeration.Role;
+import com.example.task_manager.exception.InvalidPageRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Profil de test : H2, donc le repli LIKE de la recherche plein texte
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(TaskSearchRepository.class)
+public class TaskSearchRepositoryTest {
+
+    @Autowired
+    private TaskSearchRepository taskSearchRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        alice = entityManager.persist(user("alice"));
+        bob = entityManager.persist(user("bob"));
+        entityManager.persist(task("Rapport mensuel", "Préparer le rapport de budget", alice));
+        entityManager.persist(task("Réunion budget", "Valider le rapport avec l'équipe", alice));
+        entityManager.persist(task("Courses", "Acheter du pain", alice));
+        entityManager.persist(task("Budget 2026", "Estimation annuelle", bob));
+        entityManager.flush();
+    }
+
+    private static User user(String name) {
+        return User.builder()
+                .name(name)
+                .email(name + "@example.com")
+                .password("encoded_password")
+                .role(Role.USER)
+                .build();
+    }
+
+    private static Task task(String title, String description, User user) {
+        return Task.builder().title(title).description(description).user(user).build();
+    }
+
+    private static List<String> titles(CursorPageResponse<TaskResponseDto> page) {
+        return page.content().stream().map(TaskResponseDto::title).toList();
+    }
+
+    @Test
+    void search_ranksTitleMatchesFirst() {
+        CursorPageResponse<TaskResponseDto> page = taskSearchRepository.search("rapport", null, null, 10);
+
+        // "rapport" dans le titre l'emporte sur "rapport" dans la description seule
+        assertEquals(List.of("Rapport mensuel", "Réunion budget"), titles(page));
+        assertNull(page.next());
+        assertEquals("alice@example.com", page.content().getFirst().user().email());
+    }
+
+    @Test
+    void search_requiresEveryTermAndRespectsUser() {
+        assertEquals(List.of("Rapport mensuel", "Réunion budget"),
+                titles(taskSearchRepository.search("budget RAPPORT", null, null, 10)));
+        assertEquals(List.of("Budget 2026"), titles(taskSearchRepository.search("budget", bob.getId(), null, 10)));
+        assertTrue(taskSearchRepository.search("%", null, null, 10).content().isEmpty());
+    }
+
+    @Test
+    void search_cursorVisitsEveryResultOnce() {
+        List<String> visited = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageResponse<TaskResponseDto> page = taskSearchRepository.search("budget", null, cursor, 1);
+            visited.addAll(titles(page));
+            cursor = page.next();
+        } while (cursor != null);
+
+        assertEquals(3, visited.size());
+        assertEquals(3, visited.stream().distinct().count());
+        assertThrows(InvalidPageRequestException.class,
+                () -> taskSearchRepository.search("budget", null, "not-a-cursor", 1));
+    }
+}
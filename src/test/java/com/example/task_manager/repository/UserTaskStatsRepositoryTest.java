@@ -0,0 +1,134 @@
+package com.example.task_manager.repository;
+
+import com.example.task_manager.entity.Task;
+import com.example.task_manager.entity.User;
+import com.example.task_manager.entity.UserTaskStats;
+import com.example.task_manager.enumeration.Role;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+public class UserTaskStatsRepositoryTest {
+
+    @Autowired
+    private UserTaskStatsRepository userTaskStatsRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder()
+                .name("test")
+                .email("test@example.com")
+                .password("encoded_password")
+                .role(Role.USER)
+                .build());
+        for (int i = 0; i < 3; i++) {
+            taskRepository.save(Task.builder()
+                    .title("Task " + i)
+                    .description("Description " + i)
+                    .done(i == 0)
+                    .user(user)
+                    .build());
+        }
+        entityManager.flush();
+    }
+
+    private UserTaskStats reload() {
+        entityManager.clear();
+        return userTaskStatsRepository.findById(user.getId()).orElseThrow();
+    }
+
+    @Test
+    void save_newStats_insertsWithoutSelect() {
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        entityManager.clear();
+        statistics.clear();
+
+        userTaskStatsRepository.save(new UserTaskStats(user.getId(), 0, 0));
+        entityManager.flush();
+
+        // persist et non merge : l'INSERT seul, aucune lecture préalable de la ligne
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertFalse(reload().isNew());
+    }
+
+    @Test
+    void insertMissingAndReconcile_rebuildCountersFromTasks() {
+        assertEquals(1, userTaskStatsRepository.insertMissing());
+        assertEquals(1, userTaskStatsRepository.reconcile());
+
+        UserTaskStats stats = reload();
+        assertEquals(3, stats.getTotal());
+        assertEquals(1, stats.getDone());
+        assertEquals(2, stats.getPending());
+
+        // Compteurs déjà alignés : rien à corriger
+        assertEquals(0, userTaskStatsRepository.insertMissing());
+        assertEquals(0, userTaskStatsRepository.reconcile());
+    }
+
+    @Test
+    void increment_appliesDeltasAtomically() {
+        userTaskStatsRepository.insertMissing();
+        userTaskStatsRepository.reconcile();
+
+        long changes = reload().getChanges();
+        assertEquals(1, userTaskStatsRepository.increment(user.getId(), 1, 1));
+        assertEquals(1, userTaskStatsRepository.increment(user.getId(), 0, -1));
+        assertEquals(1, userTaskStatsRepository.increment(user.getId(), 0, 0));
+
+        UserTaskStats stats = reload();
+        assertEquals(4, stats.getTotal());
+        assertEquals(1, stats.getDone());
+        // Chaque écriture change l'ETag des listes, même sans effet sur les totaux
+        assertEquals(changes + 3, stats.getChanges());
+        assertEquals(changes + 3,
+                userTaskStatsRepository.findListVersionByUserId(user.getId()).orElseThrow().changes());
+        assertEquals(4, userTaskStatsRepository.sumTotal());
+        assertEquals(0, userTaskStatsRepository.increment(user.getId() + 1, 1, 0));
+    }
+
+    @Test
+    void toggleDoneThenApplyDoneToggle_keepCountersAligned() {
+        userTaskStatsRepository.insertMissing();
+        userTaskStatsRepository.reconcile();
+        Long doneTaskId = taskRepository.findByTitle("Task 0").orElseThrow().getId();
+        Long pendingTaskId = taskRepository.findByTitle("Task 1").orElseThrow().getId();
+
+        long version = taskRepository.findVersionById(pendingTaskId, null).orElseThrow().version();
+        // Version attendue périmée : aucune ligne modifiée
+        assertEquals(0, taskRepository.toggleDone(pendingTaskId, version + 1));
+        assertEquals(1, taskRepository.toggleDone(pendingTaskId, version));
+        assertEquals(version + 1, taskRepository.findVersionById(pendingTaskId, null).orElseThrow().version());
+        assertEquals(1, userTaskStatsRepository.applyDoneToggle(pendingTaskId));
+        assertEquals(2, reload().getDone());
+
+        assertEquals(1, taskRepository.toggleDoneOwnedBy(doneTaskId, user.getId(), null));
+        assertEquals(1, userTaskStatsRepository.applyDoneToggle(doneTaskId));
+        assertEquals(1, reload().getDone());
+
+        // Tâche d'un autre utilisateur : aucune ligne modifiée
+        assertEquals(0, taskRepository.toggleDoneOwnedBy(doneTaskId, user.getId() + 1, null));
+        assertEquals(0, userTaskStatsRepository.reconcile());
+    }
+}
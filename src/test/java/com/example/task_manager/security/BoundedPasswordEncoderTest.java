@@ -0,0 +1,202 @@
+package com.example.task_manager.security;
+
+import com.example.task_manager.exception.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundedPasswordEncoderTest {
+
+    // Encodeur factice bloqué tant que le latch n'est pas relâché
+    private static PasswordEncoder blockingEncoder(CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash:" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encode(rawPassword).equals(encodedPassword);
+            }
+        };
+    }
+
+    @Test
+    public void testEncodeAndMatches_delegated() {
+        CountDownLatch release = new CountDownLatch(0);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(
+                blockingEncoder(release), 2, 4, Duration.ofSeconds(5), 1, meterRegistry)) {
+
+            assertEquals("hash:secret", encoder.encode("secret"));
+            assertTrue(encoder.matches("secret", "hash:secret"));
+            assertFalse(encoder.matches("other", "hash:secret"));
+            assertEquals(1, meterRegistry.get("password.hashing.duration").tag("operation", "encode")
+                    .timer().count());
+        }
+    }
+
+    @Test
+    public void testEncode_rejectedWhenSaturated() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(
+                blockingEncoder(release), 1, 1, Duration.ofSeconds(5), 3, meterRegistry)) {
+
+            // Un hachage en cours + un en file : le pool et la file sont pleins
+            CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+            CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+            while (meterRegistry.get("password.hashing.queue.size").gauge().value() < 1) {
+                Thread.onSpinWait();
+            }
+
+            PasswordHashingUnavailableException ex =
+                    assertThrows(PasswordHashingUnavailableException.class, () -> encoder.encode("c"));
+            assertEquals(3, ex.getRetryAfterSeconds());
+            assertEquals(1.0, meterRegistry.get("password.hashing.rejected").counter().count());
+
+            release.countDown();
+            assertEquals("hash:a", running.get(5, TimeUnit.SECONDS));
+            assertEquals("hash:b", queued.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testEncode_rejectedAfterMaxWait() {
+        CountDownLatch release = new CountDownLatch(1);
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(
+                blockingEncoder(release), 1, 1, Duration.ofMillis(50), 1, new SimpleMeterRegistry())) {
+
+            assertThrows(PasswordHashingUnavailableException.class, () -> encoder.encode("slow"));
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testEncode_loadBoundedByPoolAndQueue() throws Exception {
+        int poolSize = 2;
+        int queueCapacity = 4;
+        int callers = 32;
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger hashes = new AtomicInteger();
+        // Hachage factice de 200 ms, qui comme BCrypt ignore les interruptions
+        PasswordEncoder slowEncoder = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                hashes.incrementAndGet();
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(200));
+                running.decrementAndGet();
+                return "hash:" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encode(rawPassword).equals(encodedPassword);
+            }
+        };
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ExecutorService httpThreads = Executors.newFixedThreadPool(callers);
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(
+                slowEncoder, poolSize, queueCapacity, Duration.ofSeconds(5), 1, meterRegistry)) {
+
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                String password = "secret-" + i;
+                results.add(httpThreads.submit(() -> {
+                    start.await();
+                    long startedAt = System.nanoTime();
+                    try {
+                        assertEquals("hash:" + password, encoder.encode(password));
+                        return -1L;
+                    } catch (PasswordHashingUnavailableException e) {
+                        return System.nanoTime() - startedAt;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int rejected = 0;
+            long slowestRejection = 0;
+            for (Future<Long> result : results) {
+                long rejectionNanos = result.get(10, TimeUnit.SECONDS);
+                if (rejectionNanos >= 0) {
+                    rejected++;
+                    slowestRejection = Math.max(slowestRejection, rejectionNanos);
+                }
+            }
+
+            // Jamais plus de hachages simultanés que de threads, ni plus de demandes admises que pool + file
+            assertEquals(poolSize, maxRunning.get());
+            assertTrue(callers - rejected <= poolSize + queueCapacity, "Demandes admises : " + (callers - rejected));
+            assertEquals(callers - rejected, hashes.get());
+            assertEquals(rejected, meterRegistry.get("password.hashing.rejected").counter().count());
+            // Rejet sans attente : bien avant la fin du premier hachage
+            assertTrue(slowestRejection < TimeUnit.MILLISECONDS.toNanos(200),
+                    "Rejet le plus lent : " + TimeUnit.NANOSECONDS.toMillis(slowestRejection) + " ms");
+        } finally {
+            httpThreads.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testEncode_abandonedRequestNotHashed() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger hashes = new AtomicInteger();
+        PasswordEncoder blocking = blockingEncoder(release);
+        PasswordEncoder counting = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                hashes.incrementAndGet();
+                return blocking.encode(rawPassword);
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return blocking.matches(rawPassword, encodedPassword);
+            }
+        };
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(
+                counting, 1, 1, Duration.ofMillis(100), 1, meterRegistry)) {
+
+            CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+            while (hashes.get() < 1) {
+                Thread.onSpinWait();
+            }
+            // En file derrière un hachage bloqué : abandonnée après maxWait et retirée de la file
+            assertThrows(PasswordHashingUnavailableException.class, () -> encoder.encode("b"));
+            assertEquals(0.0, meterRegistry.get("password.hashing.queue.size").gauge().value());
+
+            // Le premier appelant abandonne aussi, mais son hachage commencé va à son terme
+            ExecutionException ex = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(PasswordHashingUnavailableException.class, ex.getCause());
+            release.countDown();
+            assertEquals("hash:c", encoder.encode("c"));
+            assertEquals(2, hashes.get());
+        }
+    }
+}
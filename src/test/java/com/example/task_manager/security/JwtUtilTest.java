@@ -0,0 +1,137 @@
+package com.example.task_manager.security;
+
+import com.example.task_manager.entity.User;
+import com.example.task_manager.enumeration.Role;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtUtilTest {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private JwtUtil jwtUtil;
+
+    private JwtUtil createJwtUtil(long expiration, int cacheMaxSize) {
+        JwtUtil util = new JwtUtil();
+        ReflectionTestUtils.setField(util, "secretKey", SECRET);
+        ReflectionTestUtils.setField(util, "jwtExpiration", expiration);
+        ReflectionTestUtils.setField(util, "cacheMaxSize", cacheMaxSize);
+        util.init();
+        return util;
+    }
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = createJwtUtil(60_000L, 100);
+    }
+
+    @Test
+    public void testVerify_success() {
+        String token = jwtUtil.generateToken("test@example.com");
+
+        VerifiedToken verified = jwtUtil.verify(token);
+
+        assertEquals("test@example.com", verified.subject());
+        assertTrue(verified.expiration().isAfter(verified.issuedAt()));
+        assertEquals("test@example.com", jwtUtil.extractUsername(token));
+    }
+
+    @Test
+    public void testVerify_identityClaims() {
+        User user = User.builder()
+                .id(7L)
+                .email("test@example.com")
+                .role(Role.ADMIN)
+                .tokenVersion(3)
+                .build();
+
+        VerifiedToken verified = jwtUtil.verify(jwtUtil.generateToken(user));
+
+        assertTrue(verified.hasIdentityClaims());
+        assertEquals(7L, verified.userId());
+        assertEquals(Role.ADMIN, verified.role());
+        assertEquals(3, verified.tokenVersion());
+        assertEquals("test@example.com", verified.subject());
+    }
+
+    @Test
+    public void testVerify_servedFromCache() {
+        String token = jwtUtil.generateToken("test@example.com");
+
+        VerifiedToken first = jwtUtil.verify(token);
+        VerifiedToken second = jwtUtil.verify(token);
+
+        // Le second appel ne reparse pas le token : même instance immuable
+        assertSame(first, second);
+    }
+
+    @Test
+    public void testVerify_tamperedSignature() {
+        String token = jwtUtil.generateToken("test@example.com");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtUtil.verify(tampered));
+    }
+
+    @Test
+    public void testVerify_expiredToken() {
+        JwtUtil expiredUtil = createJwtUtil(-1_000L, 100);
+        String token = expiredUtil.generateToken("test@example.com");
+
+        assertThrows(ExpiredJwtException.class, () -> expiredUtil.verify(token));
+    }
+
+    @Test
+    public void testCache_boundedSize() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        Instant now = Instant.now();
+        VerifiedToken verified = new VerifiedToken("test@example.com", null, null, null, now, now.plusSeconds(60));
+
+        for (int i = 0; i < 100; i++) {
+            cache.put("token-" + i, verified);
+        }
+
+        assertTrue(cache.size() <= 10);
+    }
+
+    @Test
+    public void testCache_expiredEntryNotServed() {
+        Instant now = Instant.parse("2026-01-01T00:00:00Z");
+        AtomicLong ticker = new AtomicLong();
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, Clock.fixed(now, ZoneOffset.UTC), ticker::get);
+        VerifiedToken verified = new VerifiedToken(
+                "test@example.com", null, null, null, now.minusSeconds(60), now.plusSeconds(60));
+
+        cache.put("token", verified);
+        ticker.addAndGet(Duration.ofSeconds(59).toNanos());
+        assertEquals(verified, cache.get("token"));
+
+        // L'entrée expire avec le token, même lue entre-temps
+        ticker.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertNull(cache.get("token"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testCache_alreadyExpiredTokenNotStored() {
+        Instant now = Instant.parse("2026-01-01T00:00:00Z");
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, Clock.fixed(now, ZoneOffset.UTC), new AtomicLong()::get);
+        VerifiedToken verified = new VerifiedToken(
+                "test@example.com", null, null, null, now.minusSeconds(120), now.minusSeconds(60));
+
+        cache.put("token", verified);
+
+        assertNull(cache.get("token"));
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.task_manager.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TargetStrengthBCryptPasswordEncoderTest {
+
+    @Test
+    public void testUpgradeEncoding_onlyWeakerHashes() {
+        TargetStrengthBCryptPasswordEncoder encoder = new TargetStrengthBCryptPasswordEncoder(5);
+
+        assertFalse(encoder.upgradeEncoding(encoder.encode("password")));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password")));
+        // Hash d'une instance calibrée plus haut : conservé, pas de réécriture à chaque login
+        assertFalse(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("password")));
+        assertFalse(encoder.upgradeEncoding(null));
+    }
+
+    @Test
+    public void testDelegating_legacyHashMatchesAndIsUpgraded() {
+        TargetStrengthBCryptPasswordEncoder bcrypt = new TargetStrengthBCryptPasswordEncoder(5);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        // Hash historique sans préfixe {id}, au coût 4
+        String legacyHash = new BCryptPasswordEncoder(4).encode("password");
+        assertTrue(encoder.matches("password", legacyHash));
+        assertTrue(encoder.upgradeEncoding(legacyHash));
+
+        String upgraded = encoder.encode("password");
+        assertTrue(upgraded.startsWith("{bcrypt}"));
+        assertTrue(encoder.matches("password", upgraded));
+        assertFalse(encoder.upgradeEncoding(upgraded));
+    }
+
+    @Test
+    public void testCalibrate_withinBounds() {
+        int strength = BCryptWorkFactorCalibrator.calibrate(Duration.ofMillis(1));
+
+        assertEquals(BCryptWorkFactorCalibrator.MIN_STRENGTH, strength);
+    }
+
+    @Test
+    public void testCalibrate_eachTriedStrengthIsMeasured() {
+        // Référence à 1 ms : l'extrapolation vise 14 pour 500 ms, mais le temps ne double pas exactement
+        // d'un coût à l'autre (14 : 800 ms, 13 : 600 ms, 12 : 450 ms) ; une division par deux aurait retenu 13
+        Map<Integer, Long> millis = Map.of(6, 1L, 14, 800L, 13, 600L, 12, 450L);
+        List<Integer> measured = new ArrayList<>();
+
+        int strength = BCryptWorkFactorCalibrator.calibrate(Duration.ofMillis(500), cost -> {
+            measured.add(cost);
+            return Duration.ofMillis(millis.get(cost)).toNanos();
+        });
+
+        assertEquals(12, strength);
+        assertEquals(List.of(6, 14, 13, 12), measured);
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.task_manager.security.policy;
+
+import com.example.task_manager.dto.task.TaskFilterDto;
+import com.example.task_manager.enumeration.Role;
+import com.example.task_manager.security.AuthenticatedUser;
+import com.example.task_manager.service.TaskService;
+import com.example.task_manager.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PolicyAuthorizationManagerTest {
+
+    // Méthodes gardées comme celles des services, sur une cible sans dépendance
+    public static class Guarded {
+
+        @Authorize(Policy.AUTHENTICATED)
+        public String authenticated() {
+            return "ok";
+        }
+
+        @Authorize(Policy.ADMIN)
+        public String admin() {
+            return "ok";
+        }
+
+        @Authorize(Policy.USER_OR_ADMIN)
+        public String userOrAdmin() {
+            return "ok";
+        }
+
+        @Authorize(value = Policy.OWNER_OR_ADMIN, owner = "userId")
+        public String ownedById(String label, Long userId) {
+            return "ok";
+        }
+
+        @Authorize(value = Policy.OWNER_OR_ADMIN, owner = "email")
+        public String ownedByEmail(String email) {
+            return "ok";
+        }
+
+        @Authorize(value = Policy.OWNER_OR_ADMIN, owner = "filter")
+        public String ownedResource(TaskFilterDto filter) {
+            return "ok";
+        }
+
+        public String unguarded() {
+            return "ok";
+        }
+    }
+
+    public static class Misconfigured {
+
+        @Authorize(value = Policy.OWNER_OR_ADMIN, owner = "missing")
+        public void method(Long userId) {
+        }
+    }
+
+    private PolicyAuthorizationManager manager;
+    private Guarded guarded;
+
+    @BeforeEach
+    void setUp() {
+        manager = new PolicyAuthorizationManager();
+        ProxyFactory factory = new ProxyFactory(new Guarded());
+        factory.setProxyTargetClass(true);
+        factory.addAdvisor(new AuthorizationManagerBeforeMethodInterceptor(manager.getPointcut(), manager));
+        guarded = (Guarded) factory.getProxy();
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testOwnerOrAdmin_matchesPrincipalIdOrAdminRole() {
+        authenticateAs(1L, Role.USER);
+        assertEquals("ok", guarded.ownedById("x", 1L));
+        assertThrows(AccessDeniedException.class, () -> guarded.ownedById("x", 2L));
+        assertThrows(AccessDeniedException.class, () -> guarded.ownedById("x", null));
+        assertThrows(AccessDeniedException.class, () -> guarded.admin());
+        assertEquals("ok", guarded.userOrAdmin());
+
+        authenticateAs(99L, Role.ADMIN);
+        assertEquals("ok", guarded.ownedById("x", 2L));
+        assertEquals("ok", guarded.admin());
+    }
+
+    @Test
+    public void testOwnerOrAdmin_emailAndOwnedResource() {
+        authenticateAs(1L, Role.USER);
+        assertEquals("ok", guarded.ownedByEmail("test@example.com"));
+        assertThrows(AccessDeniedException.class, () -> guarded.ownedByEmail("other@example.com"));
+
+        assertEquals("ok", guarded.ownedResource(new TaskFilterDto(null, 1L, null, null, null)));
+        // Sans utilisateur désigné, la ressource est réservée aux administrateurs
+        assertThrows(AccessDeniedException.class,
+                () -> guarded.ownedResource(new TaskFilterDto(null, null, null, null, null)));
+    }
+
+    @Test
+    public void testAuthenticated_rejectsAnonymous() {
+        SecurityContextHolder.getContext().setAuthentication(new AnonymousAuthenticationToken(
+                "key", "anonymousUser", AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")));
+
+        assertThrows(AccessDeniedException.class, () -> guarded.authenticated());
+        assertEquals("ok", guarded.unguarded());
+    }
+
+    @Test
+    public void testPointcut_selectsOnlyAnnotatedMethods() throws NoSuchMethodException {
+        Method unguarded = Guarded.class.getMethod("unguarded");
+        Method admin = Guarded.class.getMethod("admin");
+
+        assertFalse(manager.getPointcut().getMethodMatcher().matches(unguarded, Guarded.class));
+        assertTrue(manager.getPointcut().getMethodMatcher().matches(admin, Guarded.class));
+    }
+
+    @Test
+    public void testCompile_failsFastOnUnknownOwnerParameter() throws NoSuchMethodException {
+        Method method = Misconfigured.class.getMethod("method", Long.class);
+
+        assertThrows(IllegalStateException.class,
+                () -> manager.getPointcut().getMethodMatcher().matches(method, Misconfigured.class));
+    }
+
+    @Test
+    public void testCompile_allServiceRulesAreValid() {
+        for (Class<?> service : new Class<?>[]{TaskService.class, UserService.class}) {
+            for (Method method : service.getDeclaredMethods()) {
+                // Lève une exception si une règle du service est mal configurée
+                manager.getPointcut().getMethodMatcher().matches(method, service);
+            }
+        }
+    }
+
+    private static void authenticateAs(Long userId, Role role) {
+        AuthenticatedUser principal = new AuthenticatedUser(userId, "test@example.com", role);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.task_manager.security.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenBucketRateLimiterTest {
+
+    private static final long ONE_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void testTryAcquire_burstThenRefill() {
+        AtomicLong clock = new AtomicLong();
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(100, clock::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("ip:1", 3, 1));
+        }
+        long wait = limiter.tryAcquire("ip:1", 3, 1);
+        assertTrue(wait > 0 && wait <= ONE_SECOND);
+
+        // Une autre clé dispose de son propre seau
+        assertEquals(0, limiter.tryAcquire("ip:2", 3, 1));
+
+        clock.addAndGet(ONE_SECOND);
+        assertEquals(0, limiter.tryAcquire("ip:1", 3, 1));
+        assertTrue(limiter.tryAcquire("ip:1", 3, 1) > 0);
+    }
+
+    @Test
+    public void testIdleBucketsEvicted() {
+        AtomicLong clock = new AtomicLong();
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, clock::get);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire("ip:" + i, 5, 1);
+        }
+        assertEquals(10, limiter.size());
+
+        // Tous les seaux sont redevenus pleins : ils ont expiré
+        clock.addAndGet(10 * ONE_SECOND);
+        limiter.tryAcquire("ip:new", 5, 1);
+        assertEquals(1, limiter.size());
+    }
+
+    @Test
+    public void testSizeBoundedUnderDistinctKeys() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(800, () -> 0L);
+
+        for (int i = 0; i < 100_000; i++) {
+            limiter.tryAcquire("ip:" + i, 5, 0.001);
+        }
+
+        assertTrue(limiter.size() <= 800);
+    }
+
+    @Test
+    public void testTryAcquire_concurrentGrantsExactCapacity() throws Exception {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1000, () -> 0L);
+        int threads = 8;
+        int attemptsPerThread = 10_000;
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    if (limiter.tryAcquire("user:1", 500, 1) == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        // Horloge figée : exactement la capacité du seau, jamais plus
+        assertEquals(500, granted.get());
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.task_manager.security.service;
+
+import com.example.task_manager.entity.User;
+import com.example.task_manager.enumeration.Role;
+import com.example.task_manager.repository.UserRepository;
+import com.example.task_manager.security.AuthenticatedUser;
+import com.example.task_manager.security.UserDetailsImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CustomUserDetailsServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CustomUserDetailsService userDetailsService;
+
+    private User createTestUser(Long id, String email) {
+        return User.builder()
+                .id(id)
+                .name("test")
+                .email(email)
+                .password("encoded_password")
+                .role(Role.USER)
+                .dateCreation(Instant.now())
+                .build();
+    }
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userDetailsService = new CustomUserDetailsService(userRepository, meterRegistry, 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    public void testLoadAuthenticatedUser_cached() {
+        User user = createTestUser(1L, "test@example.com");
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+
+        AuthenticatedUser first = userDetailsService.loadAuthenticatedUser("test@example.com");
+        AuthenticatedUser second = userDetailsService.loadAuthenticatedUser("test@example.com");
+
+        assertSame(first, second);
+        assertEquals(1L, first.getId());
+        assertNull(first.getPassword());
+        verify(userRepository, times(1)).findByEmail("test@example.com");
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "userDetails").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    public void testLoadAuthenticatedUser_evictedByEmail() {
+        User user = createTestUser(1L, "test@example.com");
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+
+        userDetailsService.loadAuthenticatedUser("test@example.com");
+        userDetailsService.evict("test@example.com");
+        userDetailsService.loadAuthenticatedUser("test@example.com");
+
+        verify(userRepository, times(2)).findByEmail("test@example.com");
+    }
+
+    @Test
+    public void testLoadAuthenticatedUser_evictedById() {
+        User user = createTestUser(1L, "test@example.com");
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+
+        userDetailsService.loadAuthenticatedUser("test@example.com");
+        userDetailsService.evict(1L);
+        userDetailsService.loadAuthenticatedUser("test@example.com");
+
+        verify(userRepository, times(2)).findByEmail("test@example.com");
+    }
+
+    @Test
+    public void testEvict_deferredUntilCommit() {
+        User user = createTestUser(1L, "test@example.com");
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+        userDetailsService.loadAuthenticatedUser("test@example.com");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userDetailsService.evict("test@example.com");
+            userDetailsService.evict(1L);
+
+            // Transaction non validée : le principal reste en cache
+            userDetailsService.loadAuthenticatedUser("test@example.com");
+            verify(userRepository, times(1)).findByEmail("test@example.com");
+
+            TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        userDetailsService.loadAuthenticatedUser("test@example.com");
+        verify(userRepository, times(2)).findByEmail("test@example.com");
+    }
+
+    @Test
+    public void testLoadAuthenticatedUser_userNotFound() {
+        when(userRepository.findByEmail("unknown@example.com")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class,
+                () -> userDetailsService.loadAuthenticatedUser("unknown@example.com"));
+    }
+
+    @Test
+    public void testLoadUserByUsername_neverCached() {
+        User user = createTestUser(1L, "test@example.com");
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(user));
+
+        UserDetails first = userDetailsService.loadUserByUsername("test@example.com");
+        userDetailsService.loadUserByUsername("test@example.com");
+
+        assertInstanceOf(UserDetailsImpl.class, first);
+        assertEquals("encoded_password", first.getPassword());
+        verify(userRepository, times(2)).findByEmail("test@example.com");
+    }
+}
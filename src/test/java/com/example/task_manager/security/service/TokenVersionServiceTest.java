@@ -0,0 +1,118 @@
+package com.example.task_manager.security.service;
+
+import com.example.task_manager.entity.User;
+import com.example.task_manager.enumeration.Role;
+import com.example.task_manager.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenVersionServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private TokenVersionService tokenVersionService;
+
+    private static User createTestUser(Long id, int tokenVersion) {
+        return User.builder()
+                .id(id)
+                .name("test")
+                .email("test@example.com")
+                .password("encoded_password")
+                .role(Role.USER)
+                .tokenVersion(tokenVersion)
+                .enabled(true)
+                .build();
+    }
+
+    @BeforeEach
+    void setUp() {
+        tokenVersionService = new TokenVersionService(userRepository, 100, Duration.ofSeconds(30), clock::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void testIsCurrent_loadedOnce() {
+        when(userRepository.findActiveTokenVersionById(1L)).thenReturn(Optional.of(3));
+
+        assertTrue(tokenVersionService.isCurrent(1L, 3));
+        assertFalse(tokenVersionService.isCurrent(1L, 2));
+
+        verify(userRepository, times(1)).findActiveTokenVersionById(1L);
+    }
+
+    @Test
+    public void testIsCurrent_reloadedAfterTtl() {
+        // Révocation faite sur une autre instance : visible ici une fois l'entrée expirée
+        when(userRepository.findActiveTokenVersionById(1L)).thenReturn(Optional.of(1), Optional.empty());
+        assertTrue(tokenVersionService.isCurrent(1L, 1));
+
+        clock.addAndGet(Duration.ofSeconds(29).toNanos());
+        assertTrue(tokenVersionService.isCurrent(1L, 1));
+
+        clock.addAndGet(Duration.ofSeconds(2).toNanos());
+        assertFalse(tokenVersionService.isCurrent(1L, 1));
+        verify(userRepository, times(2)).findActiveTokenVersionById(1L);
+    }
+
+    @Test
+    public void testRefresh_appliedAfterCommitOnly() {
+        when(userRepository.findActiveTokenVersionById(1L)).thenReturn(Optional.of(1));
+        assertTrue(tokenVersionService.isCurrent(1L, 1));
+
+        TransactionSynchronizationManager.initSynchronization();
+        tokenVersionService.refresh(createTestUser(1L, 2));
+
+        // Transaction non validée : l'ancienne version reste la seule acceptée
+        assertTrue(tokenVersionService.isCurrent(1L, 1));
+
+        TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+        assertFalse(tokenVersionService.isCurrent(1L, 1));
+        assertTrue(tokenVersionService.isCurrent(1L, 2));
+    }
+
+    @Test
+    public void testRevokeAll_rollbackKeepsTokens() {
+        when(userRepository.findActiveTokenVersionById(1L)).thenReturn(Optional.of(1));
+
+        TransactionSynchronizationManager.initSynchronization();
+        tokenVersionService.revokeAll(1L);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertTrue(tokenVersionService.isCurrent(1L, 1));
+    }
+
+    @Test
+    public void testIsCurrent_staleLoadDoesNotOverwriteCommittedVersion() {
+        // Un commit publie la version 2 pendant que la version 1 est lue en base
+        when(userRepository.findActiveTokenVersionById(1L)).thenAnswer(invocation -> {
+            tokenVersionService.refresh(createTestUser(1L, 2));
+            return Optional.of(1);
+        });
+
+        assertFalse(tokenVersionService.isCurrent(1L, 1));
+        assertTrue(tokenVersionService.isCurrent(1L, 2));
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.task_manager.service;
+
+import com.example.task_manager.dto.task.CreateTaskDto;
+import com.example.task_manager.entity.User;
+import com.example.task_manager.entity.UserTaskStats;
+import com.example.task_manager.enumeration.Role;
+import com.example.task_manager.exception.TaskAlreadyExistException;
+import com.example.task_manager.exception.UserNotFoundException;
+import com.example.task_manager.repository.TaskRepository;
+import com.example.task_manager.repository.UserRepository;
+import com.example.task_manager.repository.UserTaskStatsRepository;
+import com.example.task_manager.security.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Créations concurrentes d'une même tâche : sans contrôle préalable du titre,
+ * c'est la contrainte d'unicité de la base qui garantit qu'une seule réussit.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class TaskServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserTaskStatsRepository userTaskStatsRepository;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.save(User.builder()
+                .name("concurrent")
+                .email("concurrent@example.com")
+                .password("encoded_password")
+                .role(Role.USER)
+                .dateCreation(Instant.now())
+                .build());
+        userId = user.getId();
+        userTaskStatsRepository.save(new UserTaskStats(userId, 0, 0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        taskRepository.deleteAllInBatch();
+        userTaskStatsRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void save_concurrentSameTitle_exactlyOneCreated() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<Boolean>> outcomes = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                outcomes.add(executor.submit(() -> {
+                    authenticateAs(userId);
+                    start.await();
+                    try {
+                        taskService.save(createTaskDto(userId, "Même titre"));
+                        return true;
+                    } catch (TaskAlreadyExistException ex) {
+                        return false;
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                    }
+                }));
+            }
+            start.countDown();
+
+            int created = 0;
+            for (Future<Boolean> outcome : outcomes) {
+                created += outcome.get() ? 1 : 0;
+            }
+            assertEquals(1, created);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, taskRepository.count());
+        assertEquals(1, userTaskStatsRepository.findById(userId).orElseThrow().getTotal());
+    }
+
+    @Test
+    void save_unknownUser_userNotFoundAndNothingPersisted() {
+        Long unknownUserId = userId + 1_000;
+        authenticateAs(unknownUserId);
+
+        assertThrows(UserNotFoundException.class, () -> taskService.save(createTaskDto(unknownUserId, "Orpheline")));
+        assertEquals(0, taskRepository.count());
+    }
+
+    private static void authenticateAs(Long userId) {
+        AuthenticatedUser principal = new AuthenticatedUser(userId, "concurrent@example.com", Role.USER);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private static CreateTaskDto createTaskDto(Long userId, String title) {
+        CreateTaskDto taskDto = new CreateTaskDto();
+        taskDto.setUserId(userId);
+        taskDto.setTitle(title);
+        taskDto.setDescription("Description");
+        return taskDto;
+    }
+}
@@ -1,30 +1,62 @@
 package com.example.task_manager.service;
 
+import com.example.task_manager.bloom.TaskTitleFilter;
+import com.example.task_manager.dto.Versioned;
 import com.example.task_manager.dto.task.CreateTaskDto;
+import com.example.task_manager.dto.task.TaskBatchItemResultDto;
+import com.example.task_manager.dto.task.TaskBatchResultDto;
+import com.example.task_manager.dto.task.TaskFilterDto;
+import com.example.task_manager.dto.task.TaskPatchDto;
 import com.example.task_manager.dto.task.TaskResponseDto;
+import com.example.task_manager.dto.task.TaskListVersionDto;
+import com.example.task_manager.dto.task.TaskSuggestionDto;
+import com.example.task_manager.dto.task.TaskVersionDto;
+import com.example.task_manager.dto.task.UpdateTaskItemDto;
+import com.example.task_manager.dto.task.VersionedTaskResponseDto;
 import com.example.task_manager.dto.user.UserResponseDto;
 import com.example.task_manager.entity.Task;
 import com.example.task_manager.entity.User;
 import com.example.task_manager.enumeration.Role;
+import com.example.task_manager.exception.InvalidPageRequestException;
+import com.example.task_manager.exception.PreconditionFailedException;
 import com.example.task_manager.exception.TaskAlreadyExistException;
 import com.example.task_manager.exception.TaskNotFoundException;
 import com.example.task_manager.exception.UserNotFoundException;
 import com.example.task_manager.mapper.TaskMapper;
 import com.example.task_manager.repository.TaskRepository;
+import com.example.task_manager.repository.TaskSearchRepository;
 import com.example.task_manager.repository.UserRepository;
+import com.example.task_manager.repository.UserTaskStatsRepository;
+import com.example.task_manager.security.AuthenticatedUser;
+import com.example.task_manager.suggestion.TaskTitleSuggester;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.sql.SQLException;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.StreamSupport;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -44,6 +76,18 @@ public class TaskServiceTest {
     @Mock
     private TaskMapper taskMapper;
 
+    @Mock
+    private UserTaskStatsRepository userTaskStatsRepository;
+
+    @Mock
+    private TaskSearchRepository taskSearchRepository;
+
+    @Mock
+    private TaskTitleSuggester taskTitleSuggester;
+
+    @Mock
+    private TaskTitleFilter taskTitleFilter;
+
     private User createTestUser(Long id) {
         return User.builder()
                 .id(id)
@@ -71,22 +115,23 @@ public class TaskServiceTest {
     public void testFindTaskById_success(){
 
         // Préparation
+        authenticateAs(1L, Role.USER);
         Long idTask = 1L;
-        User user = createTestUser(1L);
-        Task task = createTestTask(idTask, "test", "test", false, user);
 
         UserResponseDto userResponseDtoTask = new UserResponseDto(1L, "test", "test@example.com", "USER");
 
         TaskResponseDto expectedTask = new TaskResponseDto(idTask, "test", "test", false, userResponseDtoTask);
 
         // Simulation du comportement
-        when(taskRepository.findById(idTask)).thenReturn(Optional.of(task));
-        when(taskMapper.toResponseDto(task)).thenReturn(expectedTask);
+        when(taskRepository.findVersionedById(idTask, 1L))
+                .thenReturn(Optional.of(new VersionedTaskResponseDto(expectedTask, 3, 7)));
 
         // Test
-        TaskResponseDto actualTask = taskService.findById(idTask);
+        Versioned<TaskResponseDto> versioned = taskService.findById(idTask);
+        TaskResponseDto actualTask = versioned.body();
 
         // Vérification
+        assertEquals("\"3.7\"", versioned.etag());
         assertNotNull(actualTask);
         assertEquals("test", actualTask.title());
         assertEquals("test", actualTask.description());
@@ -94,7 +139,9 @@ public class TaskServiceTest {
         assertEquals(1L, actualTask.user().id());
         assertEquals("test@example.com", actualTask.user().email());
 
-        verify(taskRepository).findById(idTask);
+        verify(taskRepository).findVersionedById(idTask, 1L);
+        verify(taskRepository, never()).findById(any());
+        verify(taskMapper, never()).toResponseDto(any());
 
     }
 
@@ -102,10 +149,11 @@ public class TaskServiceTest {
     public void testFindTaskById_taskNotFound(){
 
         // Préparation
+        authenticateAs(99L, Role.ADMIN);
         Long idTask = 99L;
 
         // Simulation du comportement
-        when(taskRepository.findById(idTask)).thenReturn(Optional.empty());
+        when(taskRepository.findVersionedById(idTask, null)).thenReturn(Optional.empty());
 
         //Test
         assertThrows(TaskNotFoundException.class, () -> taskService.findById(idTask));
@@ -115,19 +163,15 @@ public class TaskServiceTest {
     @Test
     public void testFindAllTasks_nonEmptyList() {
         // Préparation
-        Long userId = 1L;
-        User user = createTestUser(userId);
-        Task task = createTestTask(1L, "Task 1", "Description 1", false, user);
-        List<Task> taskList = List.of(task);
-        Page<Task> taskPage = new PageImpl<>(taskList);
-
+        User user = createTestUser(1L);
         UserResponseDto userResponseDto = new UserResponseDto(user.getId(), user.getName(), user.getEmail(), user.getRole().name());
-        TaskResponseDto expectedTask = new TaskResponseDto(task.getId(), task.getTitle(), task.getDescription(), task.isDone(), userResponseDto);
+        TaskResponseDto expectedTask = new TaskResponseDto(1L, "Task 1", "Description 1", false, userResponseDto);
+        Page<TaskResponseDto> taskPage = new PageImpl<>(List.of(expectedTask));
 
         // Simulation du comportement
         Pageable pageable = PageRequest.of(0, 5);
-        when(taskRepository.findAll(pageable)).thenReturn(taskPage);
-        when(taskMapper.toResponseDto(task)).thenReturn(expectedTask);
+        when(taskRepository.findAllProjectedBy(pageable)).thenReturn(taskPage);
+        when(userTaskStatsRepository.sumTotal()).thenReturn(1L);
 
         // Exécution
         Page<TaskResponseDto> actualTasks = taskService.findAll(pageable);
@@ -135,24 +179,25 @@ public class TaskServiceTest {
         // Vérification
         assertNotNull(actualTasks);
         assertEquals(1, actualTasks.getContent().size());
+        assertEquals(1, actualTasks.getTotalElements());
         assertEquals("Task 1", actualTasks.getContent().getFirst().title());
         assertEquals("Description 1", actualTasks.getContent().getFirst().description());
         assertFalse(actualTasks.getContent().getFirst().done());
         assertEquals("test@example.com", actualTasks.getContent().getFirst().user().email());
 
-        verify(taskRepository).findAll(pageable);
-        verify(taskMapper).toResponseDto(task);
+        verify(taskRepository).findAllProjectedBy(pageable);
+        // Projection directe : aucune entité à convertir
+        verify(taskMapper, never()).toResponseDto(any());
     }
 
     @Test
     public void testFindAllTasks_emptyList() {
         // Préparation
-        List<Task> taskList = List.of();
-        Page<Task> emptyTaskPage = new PageImpl<>(taskList);
+        Page<TaskResponseDto> emptyTaskPage = new PageImpl<>(List.of());
 
         // Simulation du comportement
         Pageable pageable = PageRequest.of(0, 5);
-        when(taskRepository.findAll(pageable)).thenReturn(emptyTaskPage);
+        when(taskRepository.findAllProjectedBy(pageable)).thenReturn(emptyTaskPage);
 
         // Exécution
         Page<TaskResponseDto> actualTasks = taskService.findAll(pageable);
@@ -161,7 +206,7 @@ public class TaskServiceTest {
         assertNotNull(actualTasks);
         assertTrue(actualTasks.isEmpty());
 
-        verify(taskRepository).findAll(pageable);
+        verify(taskRepository).findAllProjectedBy(pageable);
         // taskMapper.toResponseDto ne doit jamais être appelé
         verify(taskMapper, never()).toResponseDto(any());
     }
@@ -171,23 +216,25 @@ public class TaskServiceTest {
     public void testFindTasksByUser_emptyList() {
         // Préparation
         Long userId = 1L;
-        User user = createTestUser(userId);
-        Page<Task> emptyTaskPage = new PageImpl<>(List.of());
+        Page<TaskResponseDto> emptyTaskPage = new PageImpl<>(List.of());
 
         // Simulation du comportement
         Pageable pageable = PageRequest.of(0, 5);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(taskRepository.findAllByUser(user, pageable)).thenReturn(emptyTaskPage);
+        when(userTaskStatsRepository.findListVersionByUserId(userId)).thenReturn(Optional.empty());
+        when(userRepository.findVersionById(userId)).thenReturn(Optional.of(2L));
+        when(taskRepository.findAllProjectedByUserId(userId, pageable)).thenReturn(emptyTaskPage);
 
         // Exécution
-        Page<TaskResponseDto> actualTasks = taskService.findByUser(userId, pageable);
+        Versioned<Page<TaskResponseDto>> versioned = taskService.findByUser(userId, pageable);
+        Page<TaskResponseDto> actualTasks = versioned.body();
 
         // Vérification
         assertNotNull(actualTasks);
         assertTrue(actualTasks.isEmpty());
+        assertEquals("\"0.2\"", versioned.etag());
 
-        verify(userRepository).findById(userId);
-        verify(taskRepository).findAllByUser(user, pageable);
+        verify(userRepository).findVersionById(userId);
+        verify(taskRepository).findAllProjectedByUserId(userId, pageable);
         verify(taskMapper, never()).toResponseDto(any());
     }
 
@@ -198,8 +245,6 @@ public class TaskServiceTest {
         Pageable pageable = PageRequest.of(0, 5);
 
         User user = createTestUser(userId);
-        Task task = createTestTask(1L, "Task 1", "Description 1", false, user);
-        Page<Task> taskPage = new PageImpl<>(List.of(task));
 
         UserResponseDto userResponseDto = new UserResponseDto(
                 user.getId(),
@@ -209,35 +254,128 @@ public class TaskServiceTest {
         );
 
         TaskResponseDto expectedTaskDto = new TaskResponseDto(
-                task.getId(),
-                task.getTitle(),
-                task.getDescription(),
-                task.isDone(),
+                1L,
+                "Task 1",
+                "Description 1",
+                false,
                 userResponseDto
         );
+        Page<TaskResponseDto> taskPage = new PageImpl<>(List.of(expectedTaskDto));
 
         // Simulation
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(taskRepository.findAllByUser(user, pageable)).thenReturn(taskPage);
-        when(taskMapper.toResponseDto(task)).thenReturn(expectedTaskDto);
+        when(taskRepository.findAllProjectedByUserId(userId, pageable)).thenReturn(taskPage);
+        when(userTaskStatsRepository.findListVersionByUserId(userId))
+                .thenReturn(Optional.of(new TaskListVersionDto(1, 5, 0)));
 
         // Exécution
-        Page<TaskResponseDto> actualTasks = taskService.findByUser(userId, pageable);
+        Versioned<Page<TaskResponseDto>> versioned = taskService.findByUser(userId, pageable);
+        Page<TaskResponseDto> actualTasks = versioned.body();
 
         // 4. Vérifications
+        assertEquals("\"5.0\"", versioned.etag());
         assertNotNull(actualTasks);
         assertEquals(1, actualTasks.getContent().size());
 
+        assertEquals(1, actualTasks.getTotalElements());
+
         TaskResponseDto actualDto = actualTasks.getContent().getFirst();
         assertEquals("Task 1", actualDto.title());
         assertEquals("Description 1", actualDto.description());
         assertFalse(actualDto.done());
         assertEquals("test@example.com", actualDto.user().email());
 
+        // Vérification : ni l'utilisateur ni les tâches ne sont chargés comme entités
+        verify(userRepository, never()).findById(any());
+        verify(taskRepository).findAllProjectedByUserId(userId, pageable);
+        verify(taskMapper, never()).toResponseDto(any());
+    }
+
+    @Test
+    public void testFindTasksByUser_userNotFound() {
+        // Préparation
+        Long userId = 99L;
+        Pageable pageable = PageRequest.of(0, 5);
+
+        // Simulation
+        when(userTaskStatsRepository.findListVersionByUserId(userId)).thenReturn(Optional.empty());
+        when(userRepository.findVersionById(userId)).thenReturn(Optional.empty());
+
         // Vérification
-        verify(userRepository).findById(userId);
-        verify(taskRepository).findAllByUser(user, pageable);
-        verify(taskMapper).toResponseDto(task);
+        assertThrows(UserNotFoundException.class, () -> taskService.findByUser(userId, pageable));
+        verify(taskRepository, never()).findAllProjectedByUserId(any(), any());
+    }
+
+    @Test
+    public void testScrollTasksByUser_userNotLoaded() {
+        // Préparation
+        User user = createTestUser(1L);
+        Task task = createTestTask(10L, "Task 1", "Description", false, user);
+
+        // Simulation
+        when(taskRepository.findAllByUserId(eq(1L), any(ScrollPosition.class), any(Sort.class), any(Limit.class)))
+                .thenReturn(Window.from(List.of(task), index -> ScrollPosition.keyset()));
+
+        // Exécution
+        taskService.scrollByUser(1L, null, 20, "id", true);
+
+        // Vérification : ni chargement ni contrôle d'existence de l'utilisateur
+        verify(userRepository, never()).findById(any());
+        verify(userRepository, never()).existsById(any());
+    }
+
+    @Test
+    public void testScrollTasksByUser_userNotFound() {
+        // Simulation
+        when(taskRepository.findAllByUserId(eq(99L), any(ScrollPosition.class), any(Sort.class), any(Limit.class)))
+                .thenReturn(Window.from(List.of(), index -> ScrollPosition.keyset()));
+        when(userRepository.existsById(99L)).thenReturn(false);
+
+        // Vérification
+        assertThrows(UserNotFoundException.class, () -> taskService.scrollByUser(99L, null, 20, "id", true));
+    }
+
+    @Test
+    public void testSearchTasks_appliesSpecificationAndPage() {
+        // Préparation
+        User user = createTestUser(1L);
+        Task task = createTestTask(1L, "Task 1", "Description 1", false, user);
+        UserResponseDto userResponseDto = new UserResponseDto(user.getId(), user.getName(), user.getEmail(), user.getRole().name());
+        TaskResponseDto expectedTask = new TaskResponseDto(1L, "Task 1", "Description 1", false, userResponseDto);
+        TaskFilterDto filter = new TaskFilterDto(false, 1L, null, null, "Task");
+        Pageable pageable = PageRequest.of(0, 5, Sort.by("dateCreation"));
+
+        // Simulation du comportement
+        when(taskRepository.findAll(ArgumentMatchers.<Specification<Task>>any(), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(task), pageable, 1));
+        when(taskMapper.toResponseDto(task)).thenReturn(expectedTask);
+
+        // Exécution
+        Page<TaskResponseDto> actualTasks = taskService.search(filter, pageable);
+
+        // Vérification
+        assertEquals(1, actualTasks.getTotalElements());
+        assertEquals("Task 1", actualTasks.getContent().getFirst().title());
+    }
+
+    @Test
+    public void testSearchTasks_sortNotAllowed() {
+        // Préparation
+        TaskFilterDto filter = new TaskFilterDto(null, null, null, null, null);
+        Pageable pageable = PageRequest.of(0, 5, Sort.by("description"));
+
+        // Vérification
+        assertThrows(InvalidPageRequestException.class, () -> taskService.search(filter, pageable));
+        verify(taskRepository, never()).findAll(ArgumentMatchers.<Specification<Task>>any(), any(Pageable.class));
+    }
+
+    @Test
+    public void testFullTextSearch_userNotFound() {
+        // Simulation du comportement
+        when(userRepository.existsById(99L)).thenReturn(false);
+
+        // Vérification
+        assertThrows(UserNotFoundException.class, () -> taskService.fullTextSearch("rapport", 99L, null, 10));
+        verify(taskSearchRepository, never()).search(any(), any(), any(), anyInt());
     }
 
     @Test
@@ -257,10 +395,9 @@ public class TaskServiceTest {
         TaskResponseDto expectedTask = new TaskResponseDto(task.getId(), task.getTitle(), task.getDescription(), task.isDone(), userResponseDto);
 
         // Simulation du comportement
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(taskRepository.findByTitle(taskDto.getTitle())).thenReturn(Optional.empty());
+        when(userRepository.getReferenceById(userId)).thenReturn(user);
         when(taskMapper.toEntity(taskDto)).thenReturn(task);
-        when(taskRepository.save(task)).thenReturn(task);
+        when(taskRepository.saveAndFlush(task)).thenReturn(task);
         when(taskMapper.toResponseDto(task)).thenReturn(expectedTask);
 
         // Exécution
@@ -273,9 +410,12 @@ public class TaskServiceTest {
         assertFalse(actualTask.done());
         assertEquals(userId, actualTask.user().id());
 
-        verify(userRepository).findById(userId);
-        verify(taskRepository).findByTitle(taskDto.getTitle());
-        verify(taskRepository).save(task);
+        verify(userRepository).getReferenceById(userId);
+        verify(userRepository, never()).findById(any());
+        verify(taskRepository, never()).findByTitle(any());
+        verify(taskRepository).saveAndFlush(task);
+        verify(userTaskStatsRepository).increment(userId, 1, 0);
+        verify(taskTitleSuggester).taskSaved(userId, task.getId(), task.getTitle());
         verify(taskMapper).toEntity(taskDto);
         verify(taskMapper).toResponseDto(task);
     }
@@ -291,19 +431,19 @@ public class TaskServiceTest {
         taskDto.setUserId(userId);
 
         User user = createTestUser(userId);
-        Task existingTask = createTestTask(1L, taskDto.getTitle(), taskDto.getDescription(), taskDto.isDone(), user);
+        Task task = createTestTask(null, taskDto.getTitle(), taskDto.getDescription(), taskDto.isDone(), user);
 
-        // Simulation du comportement
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(taskRepository.findByTitle(taskDto.getTitle())).thenReturn(Optional.of(existingTask));
+        // Simulation du comportement : la contrainte d'unicité du titre est violée
+        when(userRepository.getReferenceById(userId)).thenReturn(user);
+        when(taskMapper.toEntity(taskDto)).thenReturn(task);
+        when(taskRepository.saveAndFlush(task)).thenThrow(violation("23505"));
 
         // Vérification
         assertThrows(TaskAlreadyExistException.class, () -> taskService.save(taskDto));
 
-        verify(userRepository).findById(userId);
-        verify(taskRepository).findByTitle(taskDto.getTitle());
-        verify(taskMapper, never()).toEntity(any());
-        verify(taskRepository, never()).save(any());
+        verify(taskRepository).saveAndFlush(task);
+        verify(userTaskStatsRepository, never()).increment(any(), anyLong(), anyLong());
+        verify(taskTitleSuggester, never()).taskSaved(any(), any(), any());
     }
 
     @Test
@@ -316,22 +456,26 @@ public class TaskServiceTest {
         taskDto.setDone(false);
         taskDto.setUserId(userId);
 
-        // Simulation du comportement
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        User reference = createTestUser(userId);
+        Task task = createTestTask(null, taskDto.getTitle(), taskDto.getDescription(), taskDto.isDone(), reference);
+
+        // Simulation du comportement : la clé étrangère vers users est violée
+        when(userRepository.getReferenceById(userId)).thenReturn(reference);
+        when(taskMapper.toEntity(taskDto)).thenReturn(task);
+        when(taskRepository.saveAndFlush(task)).thenThrow(violation("23503"));
 
         // Vérification
         assertThrows(UserNotFoundException.class, () -> taskService.save(taskDto));
 
-        verify(userRepository).findById(userId);
-        verify(taskRepository, never()).findByTitle(any());
-        verify(taskMapper, never()).toEntity(any());
-        verify(taskRepository, never()).save(any());
+        verify(userRepository, never()).findById(any());
+        verify(userTaskStatsRepository, never()).increment(any(), anyLong(), anyLong());
     }
 
 
     @Test
     public void testUpdateTask_success() {
         // Préparation
+        authenticateAs(1L, Role.USER);
         Long taskId = 1L;
         Long userId = 1L;
         User user = createTestUser(userId);
@@ -347,13 +491,12 @@ public class TaskServiceTest {
                 new UserResponseDto(userId, "oldName", "old@example.com", "ROLE_USER"));
 
         // Simulation du comportement
-        when(taskRepository.findById(taskId)).thenReturn(Optional.of(existingTask));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(taskRepository.findByIdAndUserId(taskId, 1L)).thenReturn(Optional.of(existingTask));
         when(taskRepository.save(existingTask)).thenReturn(existingTask);
         when(taskMapper.toResponseDto(existingTask)).thenReturn(expectedTask);
 
         // Exécution
-        TaskResponseDto actualTask = taskService.update(taskId, updateTaskDto);
+        TaskResponseDto actualTask = taskService.update(taskId, updateTaskDto, null);
 
         // Vérifications
         assertEquals("New Title", existingTask.getTitle());
@@ -366,8 +509,9 @@ public class TaskServiceTest {
         assertEquals(expectedTask.description(), actualTask.description());
         assertTrue(actualTask.done());
 
-        verify(taskRepository).findById(taskId);
-        verify(userRepository).findById(userId);
+        verify(taskRepository).findByIdAndUserId(taskId, 1L);
+        // Utilisateur inchangé : déjà chargé avec la tâche, pas relu
+        verify(userRepository, never()).findById(any());
         verify(taskRepository).save(existingTask);
         verify(taskMapper).toResponseDto(existingTask);
     }
@@ -375,28 +519,51 @@ public class TaskServiceTest {
     @Test
     public void testUpdateTask_taskNotFound() {
         // Préparation
+        authenticateAs(1L, Role.USER);
         Long taskId = 99L;
         CreateTaskDto updateTaskDto = new CreateTaskDto();
 
         // Simulation du comportement
-        when(taskRepository.findById(taskId)).thenReturn(Optional.empty());
+        when(taskRepository.findByIdAndUserId(taskId, 1L)).thenReturn(Optional.empty());
 
-        // Vérification
-        assertThrows(TaskNotFoundException.class, () -> taskService.update(taskId, updateTaskDto));
+        // Vérification : tâche absente ou d'un autre utilisateur, sans second chargement
+        assertThrows(TaskNotFoundException.class, () -> taskService.update(taskId, updateTaskDto, null));
 
-        verify(taskRepository).findById(taskId);
+        verify(taskRepository).findByIdAndUserId(taskId, 1L);
+        verify(taskRepository, never()).findById(any());
         verify(userRepository, never()).findById(any());
         verify(taskRepository, never()).save(any());
         verify(taskMapper, never()).toResponseDto(any());
     }
 
+    @Test
+    public void testUpdateTask_staleVersion() {
+        // Préparation
+        authenticateAs(1L, Role.USER);
+        Task existingTask = createTestTask(1L, "Old", "Old", false, createTestUser(1L));
+        existingTask.setVersion(4L);
+        CreateTaskDto updateTaskDto = new CreateTaskDto();
+        updateTaskDto.setTitle("New Title");
+        updateTaskDto.setUserId(1L);
+
+        // Simulation du comportement
+        when(taskRepository.findByIdAndUserId(1L, 1L)).thenReturn(Optional.of(existingTask));
+
+        // Vérification : la tâche n'est pas modifiée
+        assertThrows(PreconditionFailedException.class, () -> taskService.update(1L, updateTaskDto, 3L));
+        assertEquals("Old", existingTask.getTitle());
+        verify(taskRepository, never()).save(any());
+        verify(userTaskStatsRepository, never()).increment(any(), anyLong(), anyLong());
+    }
+
     @Test
     public void testUpdateTask_newUserNotFound() {
         // Préparation
+        authenticateAs(1L, Role.USER);
         Long taskId = 1L;
         Long newUserId = 99L;
 
-        Task existingTask = createTestTask(taskId, "Old Title", "Old Description", false, null);
+        Task existingTask = createTestTask(taskId, "Old Title", "Old Description", false, createTestUser(1L));
         CreateTaskDto updateTaskDto = new CreateTaskDto();
         updateTaskDto.setTitle("New Title");
         updateTaskDto.setDescription("New Description");
@@ -404,33 +571,141 @@ public class TaskServiceTest {
         updateTaskDto.setUserId(newUserId);
 
         // Simulation du comportement
-        when(taskRepository.findById(taskId)).thenReturn(Optional.of(existingTask));
+        when(taskRepository.findByIdAndUserId(taskId, 1L)).thenReturn(Optional.of(existingTask));
         when(userRepository.findById(newUserId)).thenReturn(Optional.empty());
 
         // Vérification
-        assertThrows(UserNotFoundException.class, () -> taskService.update(taskId, updateTaskDto));
+        assertThrows(UserNotFoundException.class, () -> taskService.update(taskId, updateTaskDto, null));
 
-        verify(taskRepository).findById(taskId);
+        verify(taskRepository).findByIdAndUserId(taskId, 1L);
         verify(userRepository).findById(newUserId);
         verify(taskRepository, never()).save(any());
         verify(taskMapper, never()).toResponseDto(any());
     }
 
 
+    @Test
+    public void testPatchTask_appliesOnlyPresentFields() {
+        // Préparation
+        authenticateAs(99L, Role.ADMIN);
+        User user = createTestUser(1L);
+        Task existingTask = createTestTask(1L, "Old", "Old description", false, user);
+        TaskPatchDto patch = new TaskPatchDto();
+        patch.setDone(true);
+        patch.setUserId(1L);
+
+        // Simulation du comportement
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(existingTask));
+        when(taskRepository.saveAndFlush(existingTask)).thenReturn(existingTask);
+        when(userTaskStatsRepository.increment(1L, 0, 1)).thenReturn(1);
+
+        // Exécution
+        taskService.patch(1L, patch, null);
+
+        // Vérification
+        assertEquals("Old", existingTask.getTitle());
+        assertEquals("Old description", existingTask.getDescription());
+        assertTrue(existingTask.isDone());
+        verify(userRepository, never()).findById(any());
+        verify(userTaskStatsRepository).increment(1L, 0, 1);
+    }
+
+    @Test
+    public void testPatchTask_titleTaken() {
+        // Préparation
+        authenticateAs(99L, Role.ADMIN);
+        User user = createTestUser(1L);
+        Task existingTask = createTestTask(1L, "Old", "Old description", false, user);
+        TaskPatchDto patch = new TaskPatchDto();
+        patch.setTitle("Taken");
+
+        // Simulation du comportement
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(existingTask));
+        when(taskRepository.saveAndFlush(existingTask)).thenThrow(violation("23505"));
+
+        // Vérification
+        assertThrows(TaskAlreadyExistException.class, () -> taskService.patch(1L, patch, null));
+        verify(userTaskStatsRepository, never()).increment(any(), anyLong(), anyLong());
+    }
+
+    @Test
+    public void testToggleDone_ownerConditionInUpdate() {
+        // Préparation
+        authenticateAs(1L, Role.USER);
+
+        // Simulation du comportement
+        when(taskRepository.toggleDoneOwnedBy(10L, 1L, null)).thenReturn(1);
+        when(userTaskStatsRepository.applyDoneToggle(10L)).thenReturn(1);
+
+        // Exécution
+        taskService.toggleDone(10L, null);
+
+        // Vérification : aucune lecture de la tâche
+        verify(taskRepository, never()).findById(any());
+        verify(taskRepository, never()).toggleDone(any(), any());
+        verify(userTaskStatsRepository).applyDoneToggle(10L);
+    }
+
+    @Test
+    public void testToggleDone_taskNotFoundOrNotOwned() {
+        // Préparation
+        authenticateAs(1L, Role.USER);
+
+        // Simulation du comportement
+        when(taskRepository.toggleDoneOwnedBy(10L, 1L, null)).thenReturn(0);
+
+        // Vérification
+        assertThrows(TaskNotFoundException.class, () -> taskService.toggleDone(10L, null));
+        verify(userTaskStatsRepository, never()).applyDoneToggle(any());
+    }
+
+    @Test
+    public void testToggleDone_staleVersion() {
+        // Préparation
+        authenticateAs(1L, Role.USER);
+
+        // Simulation du comportement : la tâche existe mais a changé depuis la lecture du client
+        when(taskRepository.toggleDoneOwnedBy(10L, 1L, 3L)).thenReturn(0);
+        when(taskRepository.findVersionById(10L, 1L)).thenReturn(Optional.of(new TaskVersionDto(1L, 4, 0)));
+
+        // Vérification
+        assertThrows(PreconditionFailedException.class, () -> taskService.toggleDone(10L, 3L));
+        verify(userTaskStatsRepository, never()).applyDoneToggle(any());
+    }
+
+    @Test
+    public void testToggleDone_staleVersionOnOtherUsersTask() {
+        // Préparation
+        authenticateAs(1L, Role.USER);
+
+        // Simulation du comportement : la tâche d'un autre utilisateur reste invisible
+        when(taskRepository.toggleDoneOwnedBy(10L, 1L, 3L)).thenReturn(0);
+        when(taskRepository.findVersionById(10L, 1L)).thenReturn(Optional.empty());
+
+        // Vérification
+        assertThrows(TaskNotFoundException.class, () -> taskService.toggleDone(10L, 3L));
+    }
+
     @Test
     public void testDeleteTask_success() {
         // Préparation
         Long taskId = 1L;
 
+        User user = createTestUser(1L);
+        Task task = createTestTask(taskId, "Task 1", "Description 1", true, user);
+
         // Simulation du comportement
-        when(taskRepository.existsById(taskId)).thenReturn(true);
+        when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
+        when(userTaskStatsRepository.increment(1L, -1, -1)).thenReturn(1);
 
         // Exécution
-        taskService.delete(taskId);
+        taskService.delete(taskId, null);
 
         // Vérification
-        verify(taskRepository).existsById(taskId);
-        verify(taskRepository).deleteById(taskId);
+        verify(taskRepository).findById(taskId);
+        verify(taskRepository).delete(task);
+        verify(userTaskStatsRepository).increment(1L, -1, -1);
+        verify(taskTitleSuggester).taskRemoved(1L, taskId);
     }
 
     @Test
@@ -439,14 +714,186 @@ public class TaskServiceTest {
         Long taskId = 99L;
 
         // Simulation du comportement
-        when(taskRepository.existsById(taskId)).thenReturn(false);
+        when(taskRepository.findById(taskId)).thenReturn(Optional.empty());
 
         // Vérification
-        assertThrows(TaskNotFoundException.class, () -> taskService.delete(taskId));
+        assertThrows(TaskNotFoundException.class, () -> taskService.delete(taskId, null));
 
-        verify(taskRepository).existsById(taskId);
-        verify(taskRepository, never()).deleteById(any());
+        verify(taskRepository).findById(taskId);
+        verify(taskRepository, never()).delete(any(Task.class));
+        verify(userTaskStatsRepository, never()).increment(any(), anyLong(), anyLong());
     }
 
+    @Test
+    public void testSaveAllTasks_mixedResults() {
+        // Préparation : utilisateur non admin, id 1
+        authenticateAs(1L, Role.USER);
+        User user = createTestUser(1L);
+        CreateTaskDto created = createTaskDto(1L, "Task 1");
+        CreateTaskDto otherUser = createTaskDto(2L, "Task 2");
+        CreateTaskDto existingTitle = createTaskDto(1L, "Existing");
+        CreateTaskDto duplicateInBatch = createTaskDto(1L, "Task 1");
+        Task task = createTestTask(10L, "Task 1", "Description", false, user);
+
+        // Simulation du comportement
+        when(userRepository.findAllById(anyCollection())).thenReturn(List.of(user));
+        when(taskTitleFilter.existing(anyCollection(), any())).thenAnswer(invocation -> Set.copyOf(invocation
+                .<Function<Collection<String>, List<String>>>getArgument(1).apply(invocation.getArgument(0))));
+        when(taskRepository.findIdAndTitleByTitleIn(anyCollection()))
+                .thenReturn(List.of(new TaskSuggestionDto(5L, "Existing")));
+        when(taskMapper.toEntity(created)).thenReturn(task);
+        when(userTaskStatsRepository.increment(1L, 1, 0)).thenReturn(1);
 
+        // Exécution
+        TaskBatchResultDto result = taskService.saveAll(List.of(created, otherUser, existingTitle, duplicateInBatch));
+
+        // Vérification
+        assertEquals(1, result.succeeded());
+        assertEquals(3, result.failed());
+        assertEquals(List.of(201, 403, 400, 400), result.items().stream().map(TaskBatchItemResultDto::status).toList());
+        assertEquals(10L, result.items().get(0).id());
+
+        verify(taskRepository).saveAll(ArgumentMatchers.<Iterable<Task>>argThat(
+                tasks -> List.of(task).equals(StreamSupport.stream(tasks.spliterator(), false).toList())));
+        verify(userTaskStatsRepository).increment(1L, 1, 0);
+        verify(taskTitleSuggester).taskSaved(1L, 10L, "Task 1");
+        verify(taskTitleFilter).add("Task 1");
+        verify(taskRepository, never()).findByTitle(any());
+    }
+
+    @Test
+    public void testUpdateAllTasks_mixedResults() {
+        // Préparation : administrateur
+        authenticateAs(99L, Role.ADMIN);
+        User user = createTestUser(1L);
+        Task task = createTestTask(10L, "Task 1", "Description", false, user);
+        Task other = createTestTask(11L, "Task 2", "Description", false, user);
+        UpdateTaskItemDto done = updateTaskItemDto(10L, 1L, "Task 1 bis", true);
+        UpdateTaskItemDto missing = updateTaskItemDto(12L, 1L, "Task 3", false);
+        UpdateTaskItemDto titleTaken = updateTaskItemDto(11L, 1L, "Task 1 bis", false);
+
+        // Simulation du comportement
+        when(taskRepository.findAllById(anyIterable())).thenReturn(List.of(task, other));
+        when(userRepository.findAllById(anyCollection())).thenReturn(List.of(user));
+        when(taskRepository.findIdAndTitleByTitleIn(anyCollection())).thenReturn(List.of());
+        when(userTaskStatsRepository.increment(1L, 0, 1)).thenReturn(1);
+
+        // Exécution
+        TaskBatchResultDto result = taskService.updateAll(List.of(done, missing, titleTaken));
+
+        // Vérification
+        assertEquals(List.of(200, 404, 400), result.items().stream().map(TaskBatchItemResultDto::status).toList());
+        assertEquals("Task 1 bis", task.getTitle());
+        assertTrue(task.isDone());
+        assertEquals("Task 2", other.getTitle());
+
+        verify(userTaskStatsRepository).increment(1L, 0, 1);
+        verify(taskTitleSuggester).taskSaved(1L, 10L, "Task 1 bis");
+        verify(taskRepository, never()).save(any());
+    }
+
+    @Test
+    public void testUpdateAllTasks_ownershipInQuery() {
+        // Préparation : utilisateur 1, la tâche 11 appartient à un autre utilisateur
+        authenticateAs(1L, Role.USER);
+        User user = createTestUser(1L);
+        Task task = createTestTask(10L, "Task 1", "Description", false, user);
+        UpdateTaskItemDto own = updateTaskItemDto(10L, 1L, "Task 1", true);
+        UpdateTaskItemDto notOwned = updateTaskItemDto(11L, 1L, "Task 2", false);
+        UpdateTaskItemDto reassigned = updateTaskItemDto(10L, 2L, "Task 1", true);
+
+        // Simulation du comportement
+        when(taskRepository.findAllByIdInAndUserId(List.of(10L, 11L, 10L), 1L)).thenReturn(List.of(task));
+        when(userRepository.findAllById(anyCollection())).thenReturn(List.of(user, createTestUser(2L)));
+        when(taskRepository.findIdAndTitleByTitleIn(anyCollection()))
+                .thenReturn(List.of(new TaskSuggestionDto(10L, "Task 1")));
+        when(userTaskStatsRepository.increment(1L, 0, 1)).thenReturn(1);
+
+        // Exécution
+        TaskBatchResultDto result = taskService.updateAll(List.of(own, notOwned, reassigned));
+
+        // Vérification
+        assertEquals(List.of(200, 404, 403), result.items().stream().map(TaskBatchItemResultDto::status).toList());
+        verify(taskRepository, never()).findAllById(anyIterable());
+    }
+
+    @Test
+    public void testUpdateAllTasks_freedTitleNotReusedInBatch() {
+        // Préparation : échange des titres de deux tâches
+        authenticateAs(99L, Role.ADMIN);
+        User user = createTestUser(1L);
+        Task first = createTestTask(10L, "Task 1", "Description", false, user);
+        Task second = createTestTask(11L, "Task 2", "Description", false, user);
+        UpdateTaskItemDto renameFirst = updateTaskItemDto(10L, 1L, "Task 3", false);
+        UpdateTaskItemDto takeFreedTitle = updateTaskItemDto(11L, 1L, "Task 1", false);
+
+        // Simulation du comportement
+        when(taskRepository.findAllById(anyIterable())).thenReturn(List.of(first, second));
+        when(userRepository.findAllById(anyCollection())).thenReturn(List.of(user));
+        when(taskRepository.findIdAndTitleByTitleIn(anyCollection()))
+                .thenReturn(List.of(new TaskSuggestionDto(10L, "Task 1")));
+
+        // Exécution
+        TaskBatchResultDto result = taskService.updateAll(List.of(renameFirst, takeFreedTitle));
+
+        // Vérification : un seul UPDATE touche un titre, sans dépendre de l'ordre du flush
+        assertEquals(List.of(200, 409), result.items().stream().map(TaskBatchItemResultDto::status).toList());
+        assertEquals("Task 3", first.getTitle());
+        assertEquals("Task 2", second.getTitle());
+    }
+
+    @Test
+    public void testDeleteAllTasks_missingIdsReported() {
+        // Préparation
+        User user = createTestUser(1L);
+        Task task = createTestTask(10L, "Task 1", "Description", true, user);
+
+        // Simulation du comportement
+        when(taskRepository.findAllById(List.of(10L, 11L))).thenReturn(List.of(task));
+        when(userTaskStatsRepository.increment(1L, -1, -1)).thenReturn(1);
+
+        // Exécution
+        TaskBatchResultDto result = taskService.deleteAll(List.of(10L, 11L));
+
+        // Vérification
+        assertEquals(1, result.succeeded());
+        assertEquals(404, result.items().get(1).status());
+
+        verify(taskRepository).deleteAllByIdInBatch(Set.of(10L));
+        verify(userTaskStatsRepository).increment(1L, -1, -1);
+        verify(taskTitleSuggester).taskRemoved(1L, 10L);
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static void authenticateAs(Long userId, Role role) {
+        AuthenticatedUser principal = new AuthenticatedUser(userId, "test@example.com", role);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private static DataIntegrityViolationException violation(String sqlState) {
+        return new DataIntegrityViolationException("violation", new SQLException("violation", sqlState));
+    }
+
+    private static CreateTaskDto createTaskDto(Long userId, String title) {
+        CreateTaskDto taskDto = new CreateTaskDto();
+        taskDto.setUserId(userId);
+        taskDto.setTitle(title);
+        taskDto.setDescription("Description");
+        return taskDto;
+    }
+
+    private static UpdateTaskItemDto updateTaskItemDto(Long id, Long userId, String title, boolean done) {
+        UpdateTaskItemDto taskDto = new UpdateTaskItemDto();
+        taskDto.setId(id);
+        taskDto.setUserId(userId);
+        taskDto.setTitle(title);
+        taskDto.setDescription("Description");
+        taskDto.setDone(done);
+        return taskDto;
+    }
 }
@@ -1,27 +1,37 @@
 package com.example.task_manager.service;
 
+import com.example.task_manager.bloom.UserEmailFilter;
+import com.example.task_manager.dto.Versioned;
 import com.example.task_manager.dto.user.CreateUserDto;
 import com.example.task_manager.dto.user.UpdateUserDto;
 import com.example.task_manager.dto.user.UserResponseDto;
 import com.example.task_manager.entity.User;
+import com.example.task_manager.entity.UserTaskStats;
 import com.example.task_manager.enumeration.Role;
+import com.example.task_manager.exception.PreconditionFailedException;
 import com.example.task_manager.exception.UserAlreadyExistException;
 import com.example.task_manager.exception.UserNotFoundException;
 import com.example.task_manager.mapper.UserMapper;
 import com.example.task_manager.repository.UserRepository;
+import com.example.task_manager.repository.UserTaskStatsRepository;
+import com.example.task_manager.security.service.CustomUserDetailsService;
+import com.example.task_manager.security.service.TokenVersionService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import java.sql.SQLException;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Predicate;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -38,6 +48,18 @@ public class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private TokenVersionService tokenVersionService;
+
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
+    @Mock
+    private UserTaskStatsRepository userTaskStatsRepository;
+
+    @Mock
+    private UserEmailFilter userEmailFilter;
+
     private User createTestUser(Long id, String name, String email, Role role) {
         return User.builder()
                 .id(id)
@@ -58,6 +80,7 @@ public class UserServiceTest {
         //préparation
         Long idUser = 1L;
         User user = createTestUser(idUser, "test", "test@example.com", Role.USER);
+        user.setVersion(2L);
 
         UserResponseDto expectedUser = new UserResponseDto(idUser, "test", "test@example.com", "USER");
 
@@ -66,9 +89,11 @@ public class UserServiceTest {
         when(userMapper.toResponseDto(user)).thenReturn(expectedUser);
 
         //Exécution du test
-        UserResponseDto actualUser = userService.findById(idUser);
+        Versioned<UserResponseDto> versioned = userService.findById(idUser);
+        UserResponseDto actualUser = versioned.body();
 
         //Vérification
+        assertEquals("\"2\"", versioned.etag());
         assertNotNull(actualUser);
         assertEquals("test", actualUser.name());
         assertEquals("test@example.com", actualUser.email());
@@ -198,8 +223,8 @@ public class UserServiceTest {
 
         // Simulation du comportement
         when(userMapper.toEntity(createUserDto)).thenReturn(user);
-        when(userRepository.save(user)).thenReturn(user);
-        when(userRepository.findByEmail(anyString())).thenReturn(Optional.empty());
+        when(userRepository.saveAndFlush(user)).thenReturn(user);
+        when(userEmailFilter.exists(eq(createUserDto.getEmail()), any())).thenReturn(false);
         when(userMapper.toResponseDto(user)).thenReturn(expectedUser);
 
         // Exécution du test
@@ -212,7 +237,11 @@ public class UserServiceTest {
         assertEquals(idUser, actualUser.id());
         verify(userMapper).toEntity(createUserDto);
         verify(userMapper).toResponseDto(user);
-        verify(userRepository).save(user);
+        verify(userRepository).saveAndFlush(user);
+        verify(userTaskStatsRepository).save(any(UserTaskStats.class));
+        verify(userEmailFilter).add(createUserDto.getEmail());
+        // Email exclu par le filtre : aucune requête de contrôle d'unicité
+        verify(userRepository, never()).existsByEmailIgnoreCase(anyString());
 
     }
 
@@ -230,17 +259,44 @@ public class UserServiceTest {
         Long idUser = 1L;
         User user = createTestUser(idUser, createUserDto.getName(), createUserDto.getEmail(), createUserDto.getRole());
 
-        // Simulation du comportement
-        when(userRepository.findByEmail(createUserDto.getEmail())).thenReturn(Optional.of(user));
+        // Simulation du comportement : le filtre ne peut pas exclure l'email, la base tranche
+        when(userEmailFilter.exists(eq(createUserDto.getEmail()), any())).thenAnswer(
+                invocation -> invocation.<Predicate<String>>getArgument(1).test(invocation.getArgument(0)));
+        when(userRepository.existsByEmailIgnoreCase(createUserDto.getEmail())).thenReturn(true);
 
         // Vérification
         assertThrows(UserAlreadyExistException.class, () -> userService.save(createUserDto));
-        verify(userRepository).findByEmail(createUserDto.getEmail());
-        verify(userRepository, never()).save(user);
+        verify(userRepository).existsByEmailIgnoreCase(createUserDto.getEmail());
+        verify(userRepository, never()).saveAndFlush(user);
         verify(userMapper, never()).toResponseDto(user);
 
     }
 
+    @Test
+    public void testSaveUser_emailMissedByFilter_uniqueIndexRejects() {
+
+        // Préparation
+        CreateUserDto createUserDto = new CreateUserDto();
+
+        createUserDto.setName("test");
+        createUserDto.setPassword("123456789");
+        createUserDto.setRole(Role.USER);
+        createUserDto.setEmail("Test@Example.com");
+
+        User user = createTestUser(null, createUserDto.getName(), createUserDto.getEmail(), createUserDto.getRole());
+
+        // Simulation du comportement : le filtre exclut l'email à tort, l'index unique sur lower(email) le refuse
+        when(userEmailFilter.exists(eq(createUserDto.getEmail()), any())).thenReturn(false);
+        when(userMapper.toEntity(createUserDto)).thenReturn(user);
+        when(userRepository.saveAndFlush(user)).thenThrow(
+                new DataIntegrityViolationException("violation", new SQLException("violation", "23505")));
+
+        // Vérification
+        assertThrows(UserAlreadyExistException.class, () -> userService.save(createUserDto));
+        verify(userTaskStatsRepository, never()).save(any(UserTaskStats.class));
+        verify(userEmailFilter, never()).add(anyString());
+    }
+
     @Test
     public void testUpdateUser_success(){
 
@@ -262,23 +318,27 @@ public class UserServiceTest {
 
         //Simulation du comportement
         when(userRepository.findById(idUser)).thenReturn(Optional.of(existingUser));
-        when(userRepository.save(existingUser)).thenReturn(existingUser);
+        when(userRepository.saveAndFlush(existingUser)).thenReturn(existingUser);
         when(userMapper.toResponseDto(existingUser)).thenReturn(expectedUser);
 
         // Exécution du test
-        UserResponseDto actualUser = userService.update(idUser, updateUserDto);
+        UserResponseDto actualUser = userService.update(idUser, updateUserDto, null);
 
         // Vérication
         assertEquals("test", existingUser.getName());
         assertEquals("test@example.com", existingUser.getEmail());
         assertEquals("ADMIN", existingUser.getRole().name());
+        // L'email a changé : les tokens existants sont révoqués
+        assertEquals(1, existingUser.getTokenVersion());
 
         assertNotNull(actualUser);
         assertEquals(expectedUser.name(), actualUser.name());
         assertEquals(expectedUser.email(), actualUser.email());
         assertEquals(idUser, actualUser.id());
         verify(userRepository).findById(idUser);
-        verify(userRepository).save(existingUser);
+        verify(userRepository).saveAndFlush(existingUser);
+        verify(tokenVersionService).refresh(existingUser);
+        verify(userDetailsService).evict("old@example.com");
         verify(userMapper).toResponseDto(existingUser);
 
     }
@@ -293,7 +353,7 @@ public class UserServiceTest {
         when(userRepository.findById(idUser)).thenReturn(Optional.empty());
 
         //Vérification
-        assertThrows(UserNotFoundException.class, () -> userService.update(idUser, new UpdateUserDto()));
+        assertThrows(UserNotFoundException.class, () -> userService.update(idUser, new UpdateUserDto(), null));
         verify(userRepository).findById(idUser);
         verify(userRepository, never()).save(any());
 
@@ -306,14 +366,16 @@ public class UserServiceTest {
         Long idUser = 1L;
 
         // Simulation du comportement
-        when(userRepository.existsById(idUser)).thenReturn(true);
+        when(userRepository.findVersionById(idUser)).thenReturn(Optional.of(0L));
         doNothing().when(userRepository).deleteById(idUser);
 
         // Test
-        userService.delete(idUser);
+        userService.delete(idUser, 0L);
 
         // Vérification
         verify(userRepository).deleteById(idUser);
+        verify(tokenVersionService).revokeAll(idUser);
+        verify(userDetailsService).evict(idUser);
     }
 
     @Test
@@ -323,12 +385,28 @@ public class UserServiceTest {
         Long idUser = 1L;
 
         // Simulation du comportement
-        when(userRepository.existsById(idUser)).thenReturn(false);
+        when(userRepository.findVersionById(idUser)).thenReturn(Optional.empty());
+
+        // Vérification
+        assertThrows(UserNotFoundException.class, () -> userService.delete(idUser, null));
+        verify(userRepository).findVersionById(idUser);
+        verify(userRepository, never()).deleteById(any());
+        verify(tokenVersionService, never()).revokeAll(any());
+    }
+
+    @Test
+    public void testDeleteUser_staleVersion(){
+
+        // Préparation
+        Long idUser = 1L;
+
+        // Simulation du comportement
+        when(userRepository.findVersionById(idUser)).thenReturn(Optional.of(5L));
 
         // Vérification
-        assertThrows(UserNotFoundException.class, () -> userService.delete(idUser));
-        verify(userRepository).existsById(idUser);
+        assertThrows(PreconditionFailedException.class, () -> userService.delete(idUser, 4L));
         verify(userRepository, never()).deleteById(any());
+        verify(tokenVersionService, never()).revokeAll(any());
     }
 
 }
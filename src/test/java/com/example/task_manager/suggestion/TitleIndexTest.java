@@ -0,0 +1,46 @@
+package com.example.task_manager.suggestion;
+
+import com.example.task_manager.dto.task.TaskSuggestionDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TitleIndexTest {
+
+    private static List<String> titles(List<TaskSuggestionDto> suggestions) {
+        return suggestions.stream().map(TaskSuggestionDto::title).toList();
+    }
+
+    @Test
+    void startingWith_isCaseInsensitiveAndLimited() {
+        TitleIndex index = TitleIndex.of(List.of(
+                new TaskSuggestionDto(1L, "Rapport mensuel"),
+                new TaskSuggestionDto(2L, "réunion"),
+                new TaskSuggestionDto(3L, "RAPPEL facture"),
+                new TaskSuggestionDto(4L, "Courses")
+        ));
+
+        assertEquals(List.of("RAPPEL facture", "Rapport mensuel"), titles(index.startingWith("rap", 10)));
+        assertEquals(List.of("RAPPEL facture"), titles(index.startingWith("Rap", 1)));
+        assertTrue(index.startingWith("x", 10).isEmpty());
+        assertEquals(4, index.startingWith("", 10).size());
+    }
+
+    @Test
+    void withAndWithout_areCopyOnWriteAndIdempotent() {
+        TitleIndex empty = TitleIndex.EMPTY;
+        TitleIndex one = empty.with(1L, "Budget");
+        TitleIndex renamed = one.with(1L, "Bilan").with(1L, "Bilan");
+
+        assertEquals(0, empty.size());
+        assertEquals(List.of("Budget"), titles(one.startingWith("b", 10)));
+        assertEquals(List.of("Bilan"), titles(renamed.startingWith("b", 10)));
+
+        TitleIndex two = renamed.with(2L, "Bilan");
+        assertEquals(List.of(1L, 2L), two.startingWith("bilan", 10).stream().map(TaskSuggestionDto::id).toList());
+        assertEquals(List.of(2L), two.without(1L).without(1L).startingWith("b", 10).stream()
+                .map(TaskSuggestionDto::id).toList());
+    }
+}